@@ -0,0 +1,48 @@
+package study.datajpa.auditing;
+
+import org.springframework.data.domain.AuditorAware;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/*
+    트랜잭션(트랜잭션이 없으면 요청) 하나 동안 공유하는 auditing 값
+    - 시각 : flush 중(preFlush ~ postFlush)에만 한 번 읽어서 같은 flush 의 엔티티가 공유
+      flush 밖(IDENTITY 키의 persist 등)에서는 매번 clock 을 읽음. 긴 트랜잭션에서 앞서 읽은 시각이 나중 엔티티에 쓰이지 않도록
+    - auditor : 트랜잭션/요청 동안 한 번만 조회
+ */
+final class AuditContext {
+
+    private boolean flushing;
+    private LocalDateTime now;
+    private Object auditor;
+    private boolean auditorResolved;
+
+    LocalDateTime now(Clock clock) {
+        if (!flushing) {
+            return LocalDateTime.now(clock);
+        }
+        if (now == null) {
+            now = LocalDateTime.now(clock);
+        }
+        return now;
+    }
+
+    Object auditor(AuditorAware<?> auditorAware) {
+        if (!auditorResolved) {
+            auditor = auditorAware.getCurrentAuditor().orElse(null);
+            auditorResolved = true;
+        }
+        return auditor;
+    }
+
+    void beginFlush() {
+        flushing = true;
+        now = null;
+    }
+
+    void endFlush() {
+        flushing = false;
+        now = null;
+    }
+}
@@ -0,0 +1,93 @@
+package study.datajpa.auditing;
+
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedBy;
+import org.springframework.data.annotation.LastModifiedDate;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+
+/*
+    엔티티 클래스별 auditing 필드 (@CreatedDate, @LastModifiedDate, @CreatedBy, @LastModifiedBy)
+    클래스마다 한 번만 찾아서 VarHandle 로 들고 있음 (AuditingHandler 는 저장할 때마다 BeanWrapper 로 필드를 찾아 씀)
+    날짜 필드는 LocalDateTime 만 지원 (BaseTimeEntity)
+ */
+final class AuditMetadata {
+
+    private static final ClassValue<AuditMetadata> CACHE = new ClassValue<>() {
+        @Override
+        protected AuditMetadata computeValue(Class<?> type) {
+            return new AuditMetadata(type);
+        }
+    };
+
+    private VarHandle createdDate;
+    private VarHandle lastModifiedDate;
+    private VarHandle createdBy;
+    private VarHandle lastModifiedBy;
+
+    private AuditMetadata(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(CreatedDate.class)) {
+                    createdDate = dateHandle(field);
+                } else if (field.isAnnotationPresent(LastModifiedDate.class)) {
+                    lastModifiedDate = dateHandle(field);
+                } else if (field.isAnnotationPresent(CreatedBy.class)) {
+                    createdBy = handle(field);
+                } else if (field.isAnnotationPresent(LastModifiedBy.class)) {
+                    lastModifiedBy = handle(field);
+                }
+            }
+        }
+    }
+
+    static AuditMetadata of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    boolean isAuditable() {
+        return createdDate != null || lastModifiedDate != null || createdBy != null || lastModifiedBy != null;
+    }
+
+    boolean needsAuditor() {
+        return createdBy != null || lastModifiedBy != null;
+    }
+
+    // 생성 시에는 수정 일시/수정자도 같이 채움 (AuditingHandler 기본값 modifyOnCreation = true 와 같음)
+    void markCreated(Object entity, LocalDateTime now, Object auditor) {
+        set(createdDate, entity, now);
+        set(createdBy, entity, auditor);
+        markModified(entity, now, auditor);
+    }
+
+    void markModified(Object entity, LocalDateTime now, Object auditor) {
+        set(lastModifiedDate, entity, now);
+        set(lastModifiedBy, entity, auditor);
+    }
+
+    private static void set(VarHandle handle, Object entity, Object value) {
+        if (handle != null && value != null) {
+            handle.set(entity, value);
+        }
+    }
+
+    private static VarHandle dateHandle(Field field) {
+        if (field.getType() != LocalDateTime.class) {
+            throw new IllegalStateException("fast auditing 은 LocalDateTime 만 지원합니다 : " + field);
+        }
+        return handle(field);
+    }
+
+    private static VarHandle handle(Field field) {
+        try {
+            return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectVarHandle(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
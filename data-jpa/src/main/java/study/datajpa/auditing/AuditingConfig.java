@@ -0,0 +1,54 @@
+package study.datajpa.auditing;
+
+import org.hibernate.Interceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+import java.time.Clock;
+import java.util.Iterator;
+
+/*
+    datajpa.auditing.mode
+    - spring (기본) : @EnableJpaAuditing + AuditingEntityListener. 엔티티마다 시각, auditor(UUID 생성)를 새로 구함
+    - fast : FastAuditor. 클래스별 필드 캐시 + flush 중에는 시각 한 번 + 트랜잭션/요청 당 auditor 한 번
+ */
+@Configuration
+public class AuditingConfig {
+
+    @Configuration
+    @EnableJpaAuditing
+    @ConditionalOnProperty(name = "datajpa.auditing.mode", havingValue = "spring", matchIfMissing = true)
+    static class SpringDataAuditing {
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "datajpa.auditing.mode", havingValue = "fast")
+    static class FastAuditing {
+
+        @Bean
+        public FastAuditor fastAuditor(AuditorAware<?> auditorProvider) {
+            return new FastAuditor(Clock.systemDefaultZone(), auditorProvider);
+        }
+
+        // flush 가 시작될 때 시각 캐시를 켜고, 끝날 때 끔
+        @Bean
+        public HibernatePropertiesCustomizer fastAuditingFlushInterceptor(FastAuditor fastAuditor) {
+            Interceptor interceptor = new Interceptor() {
+                @Override
+                public void preFlush(Iterator<Object> entities) {
+                    fastAuditor.beginFlush();
+                }
+
+                @Override
+                public void postFlush(Iterator<Object> entities) {
+                    fastAuditor.endFlush();
+                }
+            };
+            return properties -> properties.put("hibernate.session_factory.interceptor", interceptor);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.auditing;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/*
+    BaseTimeEntity 의 엔티티 리스너. FastAuditor 빈은 datajpa.auditing.mode=fast 일 때만 있으므로 그 외에는 아무것도 안 함
+    (반대로 fast 모드에서는 @EnableJpaAuditing 이 빠져서 AuditingEntityListener 가 아무것도 안 함)
+ */
+public class FastAuditingListener {
+
+    private final ObjectProvider<FastAuditor> fastAuditor;
+
+    public FastAuditingListener(ObjectProvider<FastAuditor> fastAuditor) {
+        this.fastAuditor = fastAuditor;
+    }
+
+    @PrePersist
+    public void touchForCreate(Object entity) {
+        fastAuditor.ifAvailable(auditor -> auditor.markCreated(entity));
+    }
+
+    @PreUpdate
+    public void touchForUpdate(Object entity) {
+        fastAuditor.ifAvailable(auditor -> auditor.markModified(entity));
+    }
+}
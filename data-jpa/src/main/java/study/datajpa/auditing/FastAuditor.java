@@ -0,0 +1,82 @@
+package study.datajpa.auditing;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Clock;
+
+/*
+    datajpa.auditing.mode=fast 일 때 AuditingEntityListener 대신 auditing 필드를 채움 (FastAuditingListener 가 호출)
+    AuditContext 는 트랜잭션 리소스로 묶고, 트랜잭션이 없으면 요청 속성에, 둘 다 없으면 매번 새로 만듦
+ */
+public class FastAuditor {
+
+    private static final String REQUEST_ATTRIBUTE = FastAuditor.class.getName() + ".context";
+
+    private final Clock clock;
+    private final AuditorAware<?> auditorAware;
+
+    public FastAuditor(Clock clock, AuditorAware<?> auditorAware) {
+        this.clock = clock;
+        this.auditorAware = auditorAware;
+    }
+
+    public void markCreated(Object entity) {
+        AuditMetadata metadata = AuditMetadata.of(entity.getClass());
+        if (metadata.isAuditable()) {
+            AuditContext context = context(true);
+            metadata.markCreated(entity, context.now(clock), metadata.needsAuditor() ? context.auditor(auditorAware) : null);
+        }
+    }
+
+    public void markModified(Object entity) {
+        AuditMetadata metadata = AuditMetadata.of(entity.getClass());
+        if (metadata.isAuditable()) {
+            AuditContext context = context(true);
+            metadata.markModified(entity, context.now(clock), metadata.needsAuditor() ? context.auditor(auditorAware) : null);
+        }
+    }
+
+    // flush 시작에서 호출. 이번 flush 의 엔티티는 끝날 때까지 처음 읽은 시각을 공유
+    public void beginFlush() {
+        context(true).beginFlush();
+    }
+
+    // flush 끝에서 호출. 이후 flush 밖에서는 다시 매번 clock 을 읽음
+    public void endFlush() {
+        AuditContext context = context(false);
+        if (context != null) {
+            context.endFlush();
+        }
+    }
+
+    private AuditContext context(boolean create) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            AuditContext context = (AuditContext) TransactionSynchronizationManager.getResource(this);
+            if (context == null && create) {
+                context = new AuditContext();
+                TransactionSynchronizationManager.bindResource(this, context);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(FastAuditor.this);
+                    }
+                });
+            }
+            return context;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            AuditContext context = (AuditContext) request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (context == null && create) {
+                context = new AuditContext();
+                request.setAttribute(REQUEST_ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
+            }
+            return context;
+        }
+        return create ? new AuditContext() : null;
+    }
+}
@@ -0,0 +1,42 @@
+package study.datajpa.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.core.convert.converter.Converter;
+import study.datajpa.repository.MemberRepository;
+
+/*
+    @PathVariable("id") MemberSnapshot 바인딩용 id -> 회원 값 변환 (캐시 경유)
+    - Member 엔티티 사본을 돌려주면 호출한 쪽이 save(merge) 해서 캐시의 예전 값으로 DB 를 덮어쓸 수 있었음
+      -> 엔티티가 아닌 읽기 전용 record(MemberSnapshot)를 그대로 돌려줌. 수정이 필요하면 id 로 엔티티를 다시 조회할 것
+    - cache 가 null 이면(datajpa.member.converter-cache.enabled=false) 매번 조회
+    - 수정/삭제 시 MemberQueryCacheInvalidator 가 지움. 그 사이에 읽어간 이전 값은 TTL 까지 남을 수 있음
+ */
+public class CachedMemberConverter implements Converter<String, MemberSnapshot> {
+
+    private final MemberRepository memberRepository;
+    private final Cache cache;
+
+    public CachedMemberConverter(MemberRepository memberRepository, Cache cache) {
+        this.memberRepository = memberRepository;
+        this.cache = cache;
+    }
+
+    @Override
+    public MemberSnapshot convert(String source) {
+        if (source.isBlank()) {
+            return null;
+        }
+        Long id = Long.valueOf(source.trim());
+        MemberSnapshot snapshot = cache == null ? null : cache.get(id, MemberSnapshot.class);
+        if (snapshot == null) {
+            snapshot = memberRepository.findById(id).map(MemberSnapshot::of).orElse(null);
+            if (snapshot == null) {
+                return null; // DomainClassConverter 와 같이 없는 id 는 null
+            }
+            if (cache != null) {
+                cache.put(id, snapshot);
+            }
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,119 @@
+package study.datajpa.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.BooleanSupplier;
+
+/*
+    evict, clear 를 바로 한 번 + 트랜잭션이 끝난 뒤(커밋, 롤백 모두) 한 번 더
+    - 바로 : 같은 트랜잭션 안의 다음 조회가 이전 결과를 보지 않도록 (bulk update 는 영속성 컨텍스트를 거치지 않음)
+    - 끝난 뒤 : 커밋 전에 다른 트랜잭션이 이전 값을 다시 넣었거나, 롤백된 변경을 본 값이 들어갔을 수 있으므로
+      저장할 때마다 불리므로 synchronization 은 트랜잭션 당 하나만 등록하고, 지울 key 를 모아뒀다가 한 번에 지움
+    (TransactionAwareCacheDecorator 는 커밋 후에만 지워서 같은 트랜잭션 안에서는 이전 값이 보임)
+    현재 트랜잭션에 아직 flush 안 됐을 수 있는 변경이 있으면(bypass) 캐시를 건너뜀
+    - 엔티티 리스너는 flush 시점에 불리므로 그 전까지는 캐시가 비워지지 않아서 이전 값이 그대로 적중함
+    - 건너뛰면 메서드가 실행되고, 그 쿼리 전에 auto flush 가 일어나 변경이 반영된 값을 돌려줌. 이 값은 캐시에 넣지 않음
+ */
+class InvalidateAfterCompletionCache implements Cache {
+
+    private final Cache delegate;
+    private final BooleanSupplier bypass;
+
+    InvalidateAfterCompletionCache(Cache delegate, BooleanSupplier bypass) {
+        this.delegate = delegate;
+        this.bypass = bypass;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return bypass.getAsBoolean() ? null : delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return bypass.getAsBoolean() ? null : delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (!bypass.getAsBoolean()) {
+            return delegate.get(key, valueLoader);
+        }
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (!bypass.getAsBoolean()) {
+            delegate.put(key, value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        Pending pending = pending();
+        if (pending != null && !pending.clear) {
+            pending.keys.add(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        Pending pending = pending();
+        if (pending != null) {
+            pending.clear = true;
+            pending.keys.clear();
+        }
+    }
+
+    // 트랜잭션이 끝난 뒤 지울 것. 처음 부를 때 트랜잭션 리소스로 묶고 synchronization 을 하나 등록
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InvalidateAfterCompletionCache.this);
+                    if (created.clear) {
+                        delegate.clear();
+                    } else {
+                        created.keys.forEach(delegate::evict);
+                    }
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private static final class Pending {
+        private boolean clear;
+        private final Set<Object> keys = new HashSet<>();
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.datajpa.repository.MemberRepository;
+
+/*
+    String -> MemberSnapshot 변환 등록 (@PathVariable("id") MemberSnapshot)
+    datajpa.member.converter-cache.enabled=true 이면 memberById 캐시를 거치고, 아니면 매번 조회
+    String -> Member 는 그대로 DomainClassConverter 가 처리 (영속 엔티티)
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MemberConverterConfig implements WebMvcConfigurer {
+
+    private final MemberRepository memberRepository;
+    private final CacheManager cacheManager;
+
+    @Value("${datajpa.member.converter-cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(new CachedMemberConverter(memberRepository,
+                cacheEnabled ? cacheManager.getCache(MemberQueryCacheConfig.MEMBER_BY_ID) : null));
+    }
+}
@@ -0,0 +1,88 @@
+package study.datajpa.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/*
+    Member 조회 결과(count) 캐시
+    - key : 메서드 이름 + 인자 (SimpleKeyGenerator 는 인자만 쓰므로 countByAge(10), countByAgeGreaterThan(10) 이 같은 key 가 됨)
+    - TTL, 최대 개수 : datajpa.cache.member-query.ttl, datajpa.cache.member-query.max-size
+    - 무효화 : Member 저장/수정/삭제 (MemberQueryCacheInvalidator), bulkAgePlus (@CacheEvict), bulkAgePlusInChunks (chunk 커밋마다)
+    - 같은 트랜잭션에 flush 안 된 Member 변경이 있을 수 있으면 캐시를 건너뜀 (InvalidateAfterCompletionCache, PendingMemberChanges)
+    - 적중률 : cache.gets{cache=memberQuery, result=hit|miss}
+      /actuator/metrics 로 보려면 application.yml 에 management.endpoints.web.exposure.include: health,metrics 필요 (기본은 health 만 노출)
+    memberById : id -> Member 스냅샷 (CachedMemberConverter, datajpa.member.converter-cache.*). 수정/삭제, bulk update 시 무효화
+ */
+@EnableCaching
+@Configuration
+public class MemberQueryCacheConfig {
+
+    public static final String MEMBER_QUERY = "memberQuery";
+    public static final String MEMBER_BY_ID = "memberById";
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> memberQueryCache;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> memberByIdCache;
+
+    public MemberQueryCacheConfig(@Value("${datajpa.cache.member-query.ttl:60s}") Duration ttl,
+                                  @Value("${datajpa.cache.member-query.max-size:10000}") long maxSize,
+                                  @Value("${datajpa.member.converter-cache.ttl:30s}") Duration memberByIdTtl,
+                                  @Value("${datajpa.member.converter-cache.max-size:10000}") long memberByIdMaxSize) {
+        this.memberQueryCache = caffeine(ttl, maxSize);
+        this.memberByIdCache = caffeine(memberByIdTtl, memberByIdMaxSize);
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine(Duration ttl, long maxSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    @Bean
+    public CacheManager cacheManager() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager() {
+            @Override
+            protected Cache decorateCache(Cache cache) {
+                return new InvalidateAfterCompletionCache(cache, PendingMemberChanges::exist);
+            }
+        };
+        cacheManager.setCaches(List.of(
+                new CaffeineCache(MEMBER_QUERY, memberQueryCache, false),
+                new CaffeineCache(MEMBER_BY_ID, memberByIdCache, false)));
+        return cacheManager;
+    }
+
+    @Bean
+    public KeyGenerator methodArgsKeyGenerator() {
+        return (target, method, params) -> {
+            Object[] elements = new Object[params.length + 1];
+            elements[0] = method.getName();
+            System.arraycopy(params, 0, elements, 1, params.length);
+            return new SimpleKey(elements);
+        };
+    }
+
+    // 감싼 캐시는 CaffeineCache 가 아니라서 Spring Boot 가 자동으로 metrics 에 등록하지 못하므로 직접 등록
+    @Bean
+    public MeterBinder memberQueryCacheMetrics() {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, memberQueryCache, MEMBER_QUERY);
+            CaffeineCacheMetrics.monitor(registry, memberByIdCache, MEMBER_BY_ID);
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package study.datajpa.cache;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import study.datajpa.entity.Member;
+
+/*
+    Member 엔티티 리스너 : save, 변경 감지 update, delete 가 DB 에 반영될 때(flush) 조회 캐시를 비우고, 해당 회원의 스냅샷(memberById)을 지움
+    영속 상태가 된 Member 는 flush 전까지 캐시를 건너뛰도록 표시 (PendingMemberChanges)
+    엔티티 리스너는 Hibernate 가 SpringBeanContainer 로 만들기 때문에 주입 가능
+ */
+public class MemberQueryCacheInvalidator {
+
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    public MemberQueryCacheInvalidator(ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @PostLoad
+    @PreRemove
+    public void markPending(Member member) {
+        PendingMemberChanges.mark();
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Member member) {
+        PendingMemberChanges.mark(); // IDENTITY 라 persist 때 insert 되지만 이후 setter 변경은 flush 전까지 반영 안 됨
+        CacheManager manager = cacheManager.getIfAvailable();
+        if (manager == null) {
+            return;
+        }
+        Cache queryCache = manager.getCache(MemberQueryCacheConfig.MEMBER_QUERY);
+        if (queryCache != null) {
+            queryCache.clear();
+        }
+        Cache byIdCache = manager.getCache(MemberQueryCacheConfig.MEMBER_BY_ID);
+        if (byIdCache != null && member.getId() != null) {
+            byIdCache.evict(member.getId());
+        }
+    }
+}
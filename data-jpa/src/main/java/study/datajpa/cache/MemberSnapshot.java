@@ -0,0 +1,22 @@
+package study.datajpa.cache;
+
+import study.datajpa.entity.Member;
+
+import java.time.LocalDateTime;
+
+/*
+    캐시에 넣는 회원 값 (엔티티 자체를 여러 요청이 공유하지 않도록 값만 보관)
+    CachedMemberConverter 가 @PathVariable 로 그대로 넘겨주는 읽기 전용 값. 엔티티가 아니므로 save/merge 로 DB 에 덮어쓸 수 없음
+    auditing 필드도 같이 보관 (사본 Member 를 merge 하면 createdBy 등이 null 로 덮어써지던 문제가 있었음)
+ */
+public record MemberSnapshot(Long id, String userName, int age, Long teamId,
+                             LocalDateTime createdDate, LocalDateTime lastModifiedDate,
+                             String createdBy, String lastModifiedBy) {
+
+    static MemberSnapshot of(Member member) {
+        return new MemberSnapshot(member.getId(), member.getUserName(), member.getAge(),
+                member.getTeam() == null ? null : member.getTeam().getId(), // 프록시의 id 조회는 초기화하지 않음
+                member.getCreatedDate(), member.getLastModifiedDate(),
+                member.getCreatedBy(), member.getLastModifiedBy());
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+    현재 트랜잭션에 아직 flush 안 된 Member 변경이 있을 수 있는지 (트랜잭션 리소스에 표시만 하므로 조회 비용이 거의 없음)
+    - MemberQueryCacheInvalidator 가 Member 를 조회(@PostLoad), 저장(@PostPersist), 삭제(@PreRemove)할 때 표시
+      setter 로 바꾼 값은 dirty check 없이는 알 수 없으므로 영속 상태의 Member 가 생기면 트랜잭션이 끝날 때까지 변경이 있다고 봄
+      (Session.isDirty() 는 영속성 컨텍스트 전체를 dirty check 해서 캐시 조회마다 부르기엔 비쌈)
+    - readOnly 트랜잭션은 flush 하지 않으므로(FlushMode.MANUAL) 표시하지 않음
+ */
+final class PendingMemberChanges {
+
+    private static final Object RESOURCE_KEY = new Object();
+
+    private PendingMemberChanges() {
+    }
+
+    static void mark() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || TransactionSynchronizationManager.hasResource(RESOURCE_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(RESOURCE_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+            }
+        });
+    }
+
+    static boolean exist() {
+        return TransactionSynchronizationManager.hasResource(RESOURCE_KEY);
+    }
+}
@@ -2,12 +2,18 @@ package study.datajpa.controller;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.cache.MemberSnapshot;
+import study.datajpa.dto.ApproxTotalSlice;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberCountCache;
 import study.datajpa.repository.MemberRepository;
 
 @RestController
@@ -15,6 +21,7 @@ import study.datajpa.repository.MemberRepository;
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final MemberCountCache memberCountCache;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
@@ -27,9 +34,26 @@ public class MemberController {
         return member.getUserName();
     }
 
+    // 읽기 전용 값으로 바인딩 (CachedMemberConverter, datajpa.member.converter-cache.enabled 면 캐시 경유)
+    @GetMapping("/membersV3/{id}")
+    public String findMemberV3(@PathVariable("id") MemberSnapshot member) {
+        return member.userName();
+    }
+
+    /*
+        total=exact  : Page. 요청마다 count 쿼리 (기본값, 기존 응답과 같음)
+        total=approx : size + 1 개 조회 + 주기적으로 갱신되는 회원 수 (count 쿼리 없음)
+        total=none   : size + 1 개 조회로 다음 페이지 여부만 (Slice)
+     */
     @GetMapping("/members")
-    public Page<Member> list(Pageable pageable) {
-        return memberRepository.findAll(pageable);
+    public Slice<Member> list(Pageable pageable, @RequestParam(name = "total", defaultValue = "exact") String total) {
+        return switch (total) {
+            case "exact" -> memberRepository.findAll(pageable);
+            case "approx" -> new ApproxTotalSlice<>(memberRepository.findSliceBy(pageable),
+                    memberCountCache.get(), memberCountCache.getRefreshedAt());
+            case "none" -> memberRepository.findSliceBy(pageable);
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "total 은 exact, approx, none 중 하나 : " + total);
+        };
     }
 
     @PostConstruct
@@ -0,0 +1,24 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Instant;
+
+/*
+    다음 페이지 여부(hasNext)는 size + 1 조회로 정확하게, 총 개수는 캐시된 값(MemberCountCache)으로 내려줌
+    Page 로 만들면 총 개수로 hasNext 를 계산하므로 캐시가 늦을 때 마지막 페이지 판단이 틀어짐
+ */
+@Getter
+public class ApproxTotalSlice<T> extends SliceImpl<T> {
+
+    private final long totalElements;
+    private final Instant totalRefreshedAt;
+
+    public ApproxTotalSlice(Slice<T> slice, long totalElements, Instant totalRefreshedAt) {
+        super(slice.getContent(), slice.getPageable(), slice.hasNext());
+        this.totalElements = totalElements;
+        this.totalRefreshedAt = totalRefreshedAt;
+    }
+}
@@ -7,10 +7,11 @@ import lombok.Getter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import study.datajpa.auditing.FastAuditingListener;
 
 import java.time.LocalDateTime;
 
-@EntityListeners(AuditingEntityListener.class) // event 기반 동작
+@EntityListeners({AuditingEntityListener.class, FastAuditingListener.class}) // event 기반 동작. 둘 중 datajpa.auditing.mode 에 맞는 쪽만 동작 (AuditingConfig)
 @MappedSuperclass
 @Getter
 public class BaseTimeEntity {
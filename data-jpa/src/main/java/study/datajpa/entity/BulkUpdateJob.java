@@ -0,0 +1,70 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/*
+    id 구간 단위 bulk update 의 진행 상황 (ChunkedBulkUpdateExecutor)
+    chunk 의 update 와 같은 트랜잭션에서 lastId 를 갱신하므로, 중간에 죽어도 커밋된 chunk 까지만 반영된 상태로 남고 거기서부터 이어서 실행
+    runningJobName : 실행 중일 때만 jobName, 끝나면 null -> 유니크 제약으로 같은 이름의 RUNNING job 은 하나만 생김 (null 은 중복 허용)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "jobName", "status", "lastId", "maxId", "updatedRows"})
+@Table(indexes = @Index(name = "idx_bulk_update_job_name_status", columnList = "jobName, status"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_bulk_update_job_running", columnNames = "runningJobName"))
+public class BulkUpdateJob {
+
+    public enum Status {
+        RUNNING, COMPLETED
+    }
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bulk_update_job_id")
+    private Long id;
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private String runningJobName;
+
+    private long lastId; // 처리가 끝난 마지막 id (다음 chunk 는 lastId + 1 부터)
+    private long maxId; // 시작 시점의 최대 id (이후에 추가된 row 는 대상 아님)
+    private long updatedRows;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+
+    // 대상 테이블이 비어있으면(minId, maxId 가 0) 바로 완료
+    public static BulkUpdateJob start(String jobName, long minId, long maxId) {
+        BulkUpdateJob job = new BulkUpdateJob();
+        job.jobName = jobName;
+        job.status = maxId > 0 ? Status.RUNNING : Status.COMPLETED;
+        job.runningJobName = job.status == Status.RUNNING ? jobName : null;
+        job.lastId = Math.max(minId - 1, 0);
+        job.maxId = maxId;
+        job.startedAt = LocalDateTime.now();
+        job.updatedAt = job.startedAt;
+        return job;
+    }
+
+    public void advance(long lastId, int rows) {
+        this.lastId = lastId;
+        this.updatedRows += rows;
+        this.updatedAt = LocalDateTime.now();
+        if (lastId >= maxId) {
+            this.status = Status.COMPLETED;
+            this.runningJobName = null;
+        }
+    }
+
+    public boolean isCompleted() {
+        return status == Status.COMPLETED;
+    }
+}
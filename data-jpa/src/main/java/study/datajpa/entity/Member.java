@@ -2,8 +2,10 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import study.datajpa.cache.MemberQueryCacheInvalidator;
 
 @Entity
+@EntityListeners(MemberQueryCacheInvalidator.class) // 저장/수정/삭제 시 조회 캐시 무효화
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "userName", "age"})
@@ -0,0 +1,20 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import study.datajpa.entity.BulkUpdateJob;
+
+import java.util.Optional;
+
+public interface BulkUpdateJobRepository extends JpaRepository<BulkUpdateJob, Long> {
+
+    Optional<BulkUpdateJob> findFirstByJobNameAndStatusOrderByIdDesc(String jobName, BulkUpdateJob.Status status);
+
+    // chunk 를 처리하는 동안 같은 job 을 다른 실행이 진행시키지 못하도록 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select j from BulkUpdateJob j where j.id = :id")
+    Optional<BulkUpdateJob> findLockById(@Param("id") Long id);
+}
@@ -0,0 +1,162 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.BulkUpdateJob;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/*
+    bulk update 를 id 구간(chunkSize)으로 나눠서 chunk 마다 따로 커밋
+    - 한 문장으로 전체를 update 하면 트랜잭션이 길어지고 undo log, row lock 이 전체 실행 동안 유지됨
+    - update JPQL 에는 id 구간 조건(:fromId, :toId)이 있어야 함
+    - 진행 상황은 BulkUpdateJob 에 chunk 와 같은 트랜잭션으로 기록 -> 같은 jobName 으로 다시 실행하면 이어서 처리
+    - 같은 job 을 두 곳에서 동시에 실행해도 chunk 가 두 번 적용되지 않음
+      chunk 마다 job row 를 먼저 잠그고, lastId 가 이 chunk 의 바로 앞(fromId - 1)이 아니면 다른 실행이 처리한 것이므로 건너뜀
+      RUNNING job 생성은 유니크 제약(runningJobName)으로 하나만 성공하고, 진 쪽은 그 job 을 이어받음
+    - datajpa.bulk.max-rows-per-second (0 이면 제한 없음) 만큼만 처리하도록 chunk 사이에 쉼
+    - evictCacheNames 의 캐시는 chunk 트랜잭션 안에서 비움 (InvalidateAfterCompletionCache 라면 chunk 커밋 후 한 번 더)
+      chunk 마다 커밋되므로 중간에 실패하거나 중단돼도 이미 커밋된 chunk 의 이전 값이 캐시에 남지 않음
+    - 끝나면 호출한 쪽의 영속성 컨텍스트를 비움 (@Modifying(clearAutomatically = true) 와 같은 효과)
+    호출한 트랜잭션에서 대상 row 를 수정해둔 상태면 chunk 트랜잭션이 그 lock 을 기다리므로 트랜잭션 밖에서 호출할 것
+ */
+@Slf4j
+@Component
+public class ChunkedBulkUpdateExecutor {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final BulkUpdateJobRepository jobRepository;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final int maxRowsPerSecond;
+
+    public ChunkedBulkUpdateExecutor(BulkUpdateJobRepository jobRepository,
+                                     ObjectProvider<CacheManager> cacheManager,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${datajpa.bulk.chunk-size:1000}") int chunkSize,
+                                     @Value("${datajpa.bulk.max-rows-per-second:0}") int maxRowsPerSecond) {
+        this.jobRepository = jobRepository;
+        this.cacheManager = cacheManager;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+    }
+
+    public BulkUpdateJob execute(String jobName, Class<?> entityType, String updateJpql, Map<String, Object> parameters,
+                                 String... evictCacheNames) {
+        BulkUpdateJob job = startOrResume(jobName, entityType);
+
+        long startNanos = System.nanoTime();
+        long rowsThisRun = 0;
+        while (!job.isCompleted()) {
+            Long jobId = job.getId();
+            long fromId = job.getLastId() + 1;
+            long toId = Math.min(fromId + chunkSize - 1, job.getMaxId());
+            int[] updated = new int[1];
+            job = chunkTransaction.execute(status -> {
+                BulkUpdateJob current = jobRepository.findLockById(jobId).orElseThrow();
+                if (current.isCompleted() || current.getLastId() != fromId - 1) {
+                    log.info("bulk update chunk {}~{} 는 다른 실행이 처리함, 건너뜀 : {}", fromId, toId, current);
+                    return current;
+                }
+                Query update = em.createQuery(updateJpql)
+                        .setParameter("fromId", fromId)
+                        .setParameter("toId", toId);
+                parameters.forEach(update::setParameter);
+                updated[0] = update.executeUpdate();
+                current.advance(toId, updated[0]);
+                clearCaches(evictCacheNames);
+                return current;
+            });
+            rowsThisRun += updated[0];
+            throttle(startNanos, rowsThisRun, job);
+        }
+        log.info("bulk update done : {}", job);
+
+        // 호출한 쪽 영속성 컨텍스트의 엔티티는 DB 와 달라졌으므로 버림
+        // 트랜잭션이 없어도 OSIV 처럼 스레드에 묶인 영속성 컨텍스트가 있으면 비움 (clearAutomatically 와 같은 기준)
+        if (TransactionSynchronizationManager.hasResource(em.getEntityManagerFactory())) {
+            em.clear();
+        }
+        return job;
+    }
+
+    private void clearCaches(String... cacheNames) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        if (manager == null) {
+            return;
+        }
+        for (String cacheName : cacheNames) {
+            Cache cache = manager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    // 실행 중인 job 이 있으면 이어받고, 없으면 새로 만듦. 동시에 만들면 유니크 제약에 걸린 쪽이 먼저 만든 job 을 이어받음
+    private BulkUpdateJob startOrResume(String jobName, Class<?> entityType) {
+        try {
+            return chunkTransaction.execute(status -> findRunning(jobName)
+                    .orElseGet(() -> {
+                        Object[] range = em.createQuery("select min(e.id), max(e.id) from " + entityName(entityType) + " e", Object[].class)
+                                .getSingleResult();
+                        return jobRepository.saveAndFlush(BulkUpdateJob.start(jobName, idOf(range[0]), idOf(range[1])));
+                    }));
+        } catch (DataIntegrityViolationException e) {
+            return chunkTransaction.execute(status -> findRunning(jobName)
+                    .orElseThrow(() -> new IllegalStateException("bulk update job 생성 실패 : " + jobName, e)));
+        }
+    }
+
+    private Optional<BulkUpdateJob> findRunning(String jobName) {
+        return jobRepository.findFirstByJobNameAndStatusOrderByIdDesc(jobName, BulkUpdateJob.Status.RUNNING)
+                .map(running -> {
+                    log.info("bulk update resume : {}", running);
+                    return running;
+                });
+    }
+
+    // 이번 실행에서 update 된 row 수 기준으로 rows/sec 를 넘지 않도록 대기
+    private void throttle(long startNanos, long rows, BulkUpdateJob job) {
+        if (maxRowsPerSecond <= 0 || job.isCompleted()) {
+            return;
+        }
+        long expectedNanos = TimeUnit.SECONDS.toNanos(1) * rows / maxRowsPerSecond;
+        long sleepNanos = expectedNanos - (System.nanoTime() - startNanos);
+        if (sleepNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("bulk update 중단 (같은 jobName 으로 다시 실행하면 이어서 처리) : " + job, e);
+            }
+        }
+    }
+
+    private String entityName(Class<?> entityType) {
+        return em.getMetamodel().entity(entityType).getName();
+    }
+
+    private static long idOf(Object id) {
+        return id == null ? 0 : ((Number) id).longValue();
+    }
+}
@@ -0,0 +1,40 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/*
+    회원 수를 주기적으로 세어서 들고 있음 (목록 요청마다 count(*) 를 날리지 않도록)
+    값은 최대 갱신 주기(datajpa.member.count-refresh-millis)만큼 늦을 수 있으므로 대략적인 총 개수가 필요한 곳에서만 사용
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberCountCache {
+
+    private final MemberRepository memberRepository;
+
+    private volatile Long count; // 아직 한 번도 세지 않았으면 null
+    @Getter
+    private volatile Instant refreshedAt;
+
+    public long get() {
+        Long cached = count;
+        return cached != null ? cached : refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.member.count-refresh-millis:30000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    public long refresh() {
+        long value = memberRepository.count();
+        count = value;
+        refreshedAt = Instant.now();
+        return value;
+    }
+}
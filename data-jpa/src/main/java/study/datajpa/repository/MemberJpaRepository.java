@@ -2,7 +2,9 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Repository;
+import study.datajpa.cache.MemberQueryCacheConfig;
 import study.datajpa.entity.Member;
 
 import java.util.List;
@@ -56,6 +58,8 @@ public class MemberJpaRepository {
                 .getSingleResult();
     }
 
+    // bulk update 는 엔티티 리스너를 거치지 않으므로 캐시를 직접 비움 (MemberRepository.bulkAgePlus 와 같음)
+    @CacheEvict(cacheNames = {MemberQueryCacheConfig.MEMBER_QUERY, MemberQueryCacheConfig.MEMBER_BY_ID}, allEntries = true)
     public int bulkAgePlus(int age) {
         return em.createQuery("update Member m set m.age = m.age + 100 where m.age >= :age")
                 .setParameter("age", age)
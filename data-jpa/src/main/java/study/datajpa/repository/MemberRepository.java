@@ -2,11 +2,15 @@ package study.datajpa.repository;
 
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import study.datajpa.cache.MemberQueryCacheConfig;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
@@ -32,8 +36,22 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     Page<Member> findByAgeGreaterThan(int age, Pageable pageable);
 
+    // count 는 캐시에서 (MemberQueryCacheConfig). 페이지 조립은 MemberRepositoryImpl.findPageByAge...WithCachedCount
+    @Cacheable(cacheNames = MemberQueryCacheConfig.MEMBER_QUERY, keyGenerator = "methodArgsKeyGenerator")
     int countByAgeGreaterThan(int age);
 
+    @Cacheable(cacheNames = MemberQueryCacheConfig.MEMBER_QUERY, keyGenerator = "methodArgsKeyGenerator")
+    long countByAge(int age);
+
+    // count 쿼리 없이 내용만 (Pageable 의 offset, limit, sort 적용)
+    List<Member> findListByAge(int age, Pageable pageable);
+
+    List<Member> findListByAgeGreaterThan(int age, Pageable pageable);
+
+    // count 쿼리 없이 size + 1 개를 가져와서 다음 페이지가 있는지만 판단 (Slice)
+    @Query("select m from Member m")
+    Slice<Member> findSliceBy(Pageable pageable);
+
     /*
         @Modifying과 @Query를 사용하면 영속성 컨텍스트의 변경감지를 통한 업데이트 방식이 아님 
         영속성 컨텍스트의 캐시와 별개로 데이터베이스에 직접 접근하는거라 영속성 컨텍스트와 데이터베이스의 상태가 서로 일치하지 않을 수 있음
@@ -41,6 +59,8 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
          엔티티 매니저는 1차캐시가 없으므로 최신사항이 모두 반영된 데이터베이스로부터 새로운 데이터를 가져와서 캐싱하고 반환해줌
          * JPQL query를 날릴때 트랜잭션 커밋이 자동으로 호출되고 커밋 전에 flush()가 먼저 자동으로 호출되므로 em.flush() 는 생략 가능
      */
+    // bulk update 는 엔티티 리스너를 거치지 않으므로 캐시를 직접 비움
+    @CacheEvict(cacheNames = {MemberQueryCacheConfig.MEMBER_QUERY, MemberQueryCacheConfig.MEMBER_BY_ID}, allEntries = true)
     @Modifying(clearAutomatically = true)
     @Query("update Member m set m.age = m.age + 100 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
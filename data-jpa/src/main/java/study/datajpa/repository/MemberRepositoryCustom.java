@@ -1,9 +1,20 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.entity.BulkUpdateJob;
 import study.datajpa.entity.Member;
 
 import java.util.List;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    Page<Member> findPageByAgeWithCachedCount(int age, Pageable pageable);
+
+    Page<Member> findPageByAgeGreaterThanWithCachedCount(int age, Pageable pageable);
+
+    // bulkAgePlus 를 id 구간 chunk 로 나눠서 실행 (ChunkedBulkUpdateExecutor). 중간에 실패하면 다시 호출해서 이어서 처리
+    // memberQuery, memberById 캐시는 chunk 커밋마다 비움
+    BulkUpdateJob bulkAgePlusInChunks(int age);
 }
@@ -2,20 +2,49 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import study.datajpa.cache.MemberQueryCacheConfig;
+import study.datajpa.entity.BulkUpdateJob;
 import study.datajpa.entity.Member;
 
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
     private final EntityManager em;
+    private final ObjectProvider<MemberRepository> memberRepository; // 캐시 프록시를 거치도록 빈으로 호출 (순환 참조라서 지연 조회)
+    private final ChunkedBulkUpdateExecutor chunkedBulkUpdateExecutor;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
     }
+
+    // 마지막 페이지처럼 count 가 필요 없으면 PageableExecutionUtils 가 count 를 생략, 필요하면 캐시된 count 사용
+    @Override
+    public Page<Member> findPageByAgeWithCachedCount(int age, Pageable pageable) {
+        MemberRepository repository = memberRepository.getObject();
+        return PageableExecutionUtils.getPage(repository.findListByAge(age, pageable), pageable, () -> repository.countByAge(age));
+    }
+
+    @Override
+    public Page<Member> findPageByAgeGreaterThanWithCachedCount(int age, Pageable pageable) {
+        MemberRepository repository = memberRepository.getObject();
+        return PageableExecutionUtils.getPage(repository.findListByAgeGreaterThan(age, pageable), pageable, () -> repository.countByAgeGreaterThan(age));
+    }
+
+    @Override
+    public BulkUpdateJob bulkAgePlusInChunks(int age) {
+        return chunkedBulkUpdateExecutor.execute("bulkAgePlus:" + age, Member.class,
+                "update Member m set m.age = m.age + 100 where m.age >= :age and m.id between :fromId and :toId",
+                Map.of("age", age), MemberQueryCacheConfig.MEMBER_QUERY, MemberQueryCacheConfig.MEMBER_BY_ID);
+    }
 }
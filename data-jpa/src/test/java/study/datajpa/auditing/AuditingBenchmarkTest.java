@@ -0,0 +1,66 @@
+package study.datajpa.auditing;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    auditing 모드별 batch 저장 시간 비교 (기본 test 에서는 실행 안 됨)
+    ./gradlew test --tests '*AuditingBenchmarkTest' -Pdatajpa.benchmark=true
+    트랜잭션 하나에 회원 BATCH 명 저장, 100 명마다 flush/clear. 워밍업 후 ROUNDS 번 측정한 평균
+ */
+@EnabledIfSystemProperty(named = "datajpa.benchmark", matches = "true")
+class AuditingBenchmarkTest {
+
+    private static final int BATCH = 1_000;
+    private static final int WARMUP = 20;
+    private static final int ROUNDS = 50;
+
+    @Test
+    @DisplayName("auditing 모드별 batch 저장 시간")
+    void compareAuditingModes() {
+        for (String mode : new String[]{"spring", "fast"}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DataJpaApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties("datajpa.auditing.mode=" + mode,
+                            "decorator.datasource.enabled=false", // p6spy 로깅 비용은 제외
+                            "logging.level.root=warn")
+                    .run()) {
+                TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+                EntityManager em = context.getBean(EntityManager.class);
+
+                for (int i = 0; i < WARMUP; i++) {
+                    saveBatch(transaction, em);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                    saveBatch(transaction, em);
+                }
+                double millisPerBatch = (double) TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ROUNDS / 1000;
+                System.out.printf("auditing mode=%-6s : %.2f ms / %d saves%n", mode, millisPerBatch, BATCH);
+            }
+        }
+    }
+
+    private static void saveBatch(TransactionTemplate transaction, EntityManager em) {
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < BATCH; i++) {
+                em.persist(Member.builder().userName("member" + i).age(i % 100).build());
+                if (i % 100 == 99) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.auditing;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "datajpa.auditing.mode=fast")
+@Transactional
+class FastAuditingTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    @DisplayName("fast auditing - auditor 는 트랜잭션 당 한 번, 시각은 같은 flush 안에서만 공유")
+    void fastAuditing() throws Exception {
+        // given : flush 밖의 persist 는 각자 시각을 읽음
+        Member member1 = memberRepository.save(Member.builder().userName("member1").age(10).build());
+        Thread.sleep(10);
+        Member member2 = memberRepository.save(Member.builder().userName("member2").age(20).build());
+        em.flush();
+
+        // when : 한 번의 flush 로 둘 다 update
+        Thread.sleep(10);
+        member1.setAge(11);
+        member2.setAge(21);
+        em.flush();
+
+        // then
+        assertThat(member2.getCreatedDate()).isAfter(member1.getCreatedDate());
+        assertThat(member1.getCreatedBy()).isNotNull()
+                .isEqualTo(member2.getCreatedBy())
+                .isEqualTo(member1.getLastModifiedBy());
+        assertThat(member1.getLastModifiedDate()).isAfter(member2.getCreatedDate())
+                .isEqualTo(member2.getLastModifiedDate());
+    }
+
+    @Test
+    @DisplayName("fast auditing - persist 때 읽은 시각을 이후 flush 에서 쓰지 않음")
+    void fastAuditingResetOnFlushStart() throws Exception {
+        // given : persist 시점에 시각을 읽었고 아직 flush 는 없음
+        Member member = memberRepository.save(Member.builder().userName("member1").age(10).build());
+
+        // when
+        Thread.sleep(10);
+        member.setAge(11);
+        em.flush();
+
+        // then
+        assertThat(member.getLastModifiedDate()).isAfter(member.getCreatedDate());
+    }
+}
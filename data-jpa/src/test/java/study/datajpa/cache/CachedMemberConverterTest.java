@@ -0,0 +1,53 @@
+package study.datajpa.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.convert.ConversionService;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "datajpa.member.converter-cache.enabled=true")
+class CachedMemberConverterTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    @Qualifier("mvcConversionService")
+    ConversionService conversionService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Test
+    @DisplayName("id -> MemberSnapshot 변환은 캐시에서, 수정하면 무효화")
+    void convertWithCache() {
+        // given
+        Member saved = memberRepository.save(Member.builder().userName("memberA").age(10).build());
+        com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache = (com.github.benmanes.caffeine.cache.Cache<?, ?>)
+                cacheManager.getCache(MemberQueryCacheConfig.MEMBER_BY_ID).getNativeCache();
+        long hitsBefore = nativeCache.stats().hitCount();
+
+        // when
+        MemberSnapshot first = conversionService.convert(saved.getId().toString(), MemberSnapshot.class);
+        MemberSnapshot second = conversionService.convert(saved.getId().toString(), MemberSnapshot.class);
+
+        saved.setUserName("memberB");
+        memberRepository.save(saved); // merge -> update -> 캐시에서 제거
+        MemberSnapshot afterUpdate = conversionService.convert(saved.getId().toString(), MemberSnapshot.class);
+
+        // then
+        assertThat(first.userName()).isEqualTo("memberA");
+        assertThat(first.createdDate()).isNotNull(); // auditing 필드도 보관
+        assertThat(first.createdBy()).isNotNull();
+        assertThat(second).isEqualTo(first);
+        assertThat(nativeCache.stats().hitCount() - hitsBefore).isEqualTo(1);
+        assertThat(afterUpdate.userName()).isEqualTo("memberB");
+    }
+}
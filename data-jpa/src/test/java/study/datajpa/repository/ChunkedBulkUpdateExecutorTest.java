@@ -0,0 +1,96 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import study.datajpa.cache.MemberQueryCacheConfig;
+import study.datajpa.entity.BulkUpdateJob;
+import study.datajpa.entity.Member;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// chunk 마다 커밋되는지 보려면 테스트 트랜잭션 없이 실행해야 함
+@SpringBootTest(properties = "datajpa.bulk.chunk-size=5")
+class ChunkedBulkUpdateExecutorTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    BulkUpdateJobRepository bulkUpdateJobRepository;
+
+    @Autowired
+    ChunkedBulkUpdateExecutor chunkedBulkUpdateExecutor;
+
+    @BeforeEach
+    void setup() {
+        bulkUpdateJobRepository.deleteAll();
+        memberRepository.deleteAll();
+        for (int i = 1; i < 30; i++) {
+            memberRepository.save(Member.builder()
+                    .age(i)
+                    .userName("member" + i)
+                    .build());
+        }
+    }
+
+    @Test
+    @DisplayName("id 구간 chunk 로 bulk update")
+    void bulkAgePlusInChunks() {
+        // when
+        BulkUpdateJob job = memberRepository.bulkAgePlusInChunks(20);
+
+        // then
+        assertThat(job.isCompleted()).isTrue();
+        assertThat(job.getUpdatedRows()).isEqualTo(10);
+        assertThat(memberRepository.countByAgeGreaterThan(100)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("중간에 멈춘 job 은 마지막 처리 id 다음부터 이어서 실행")
+    void resume() {
+        // given : age 24 회원까지 처리하고 멈춘 job
+        Member stoppedAt = memberRepository.findAll().stream()
+                .filter(member -> member.getAge() == 24)
+                .findFirst()
+                .orElseThrow();
+        long minId = memberRepository.findAll().stream().mapToLong(Member::getId).min().orElseThrow();
+        long maxId = memberRepository.findAll().stream().mapToLong(Member::getId).max().orElseThrow();
+        BulkUpdateJob stopped = BulkUpdateJob.start("bulkAgePlus:20", minId, maxId);
+        stopped.advance(stoppedAt.getId(), 0);
+        bulkUpdateJobRepository.save(stopped);
+        assertThat(memberRepository.countByAgeGreaterThan(100)).isZero(); // 캐시에 0 이 들어감
+
+        // when
+        BulkUpdateJob job = chunkedBulkUpdateExecutor.execute("bulkAgePlus:20", Member.class,
+                "update Member m set m.age = m.age + 100 where m.age >= :age and m.id between :fromId and :toId",
+                Map.of("age", 20), MemberQueryCacheConfig.MEMBER_QUERY);
+
+        // then
+        assertThat(job.getId()).isEqualTo(stopped.getId());
+        assertThat(job.getUpdatedRows()).isEqualTo(5); // age 25 ~ 29
+        assertThat(memberRepository.countByAgeGreaterThan(100)).isEqualTo(5); // chunk 트랜잭션에서 캐시가 비워짐
+    }
+
+    @Test
+    @DisplayName("같은 이름의 RUNNING job 은 하나만 생성되고, 끝난 job 은 이름이 같아도 새로 만들 수 있음")
+    void singleRunningJob() {
+        // given
+        BulkUpdateJob first = bulkUpdateJobRepository.save(BulkUpdateJob.start("bulkAgePlus:20", 1, 10));
+
+        // expected
+        assertThatThrownBy(() -> bulkUpdateJobRepository.save(BulkUpdateJob.start("bulkAgePlus:20", 1, 10)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        first.advance(10, 0); // 완료
+        bulkUpdateJobRepository.save(first);
+        BulkUpdateJob next = bulkUpdateJobRepository.save(BulkUpdateJob.start("bulkAgePlus:20", 1, 10));
+        assertThat(next.getRunningJobName()).isEqualTo("bulkAgePlus:20");
+    }
+}
@@ -7,8 +7,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.cache.MemberQueryCacheConfig;
 import study.datajpa.entity.Member;
 
 import java.util.List;
@@ -25,6 +28,9 @@ class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    CacheManager cacheManager;
+
     @PersistenceContext
     EntityManager em;
     
@@ -157,6 +163,8 @@ class MemberJpaRepositoryTest {
                     .build();
             memberJpaRepository.save(member);
         }
+        Cache queryCache = cacheManager.getCache(MemberQueryCacheConfig.MEMBER_QUERY);
+        queryCache.put("stale", 1L);
         // when
         int resultCount = memberJpaRepository.bulkAgePlus(20);
         //em.flush(); JPQL query(bulkAgePlus()) 실행할 때 트랜잭션 커밋 호출되면서 자동으로 flush() 호출 되므로 생략가능
@@ -166,5 +174,6 @@ class MemberJpaRepositoryTest {
         // then
         assertThat(resultCount).isEqualTo(10);
         assertThat(totalCount).isEqualTo(10);
+        assertThat(queryCache.get("stale")).isNull(); // bulk update 후 조회 캐시도 비워짐
     }
 }
\ No newline at end of file
@@ -8,12 +8,16 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.cache.MemberQueryCacheConfig;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
@@ -34,6 +38,12 @@ class MemberRepositoryTest {
     @Autowired
     TeamRepository teamRepository;
 
+    @Autowired
+    MemberCountCache memberCountCache;
+
+    @Autowired
+    CacheManager cacheManager;
+
     @PersistenceContext
     EntityManager em;
 
@@ -277,6 +287,115 @@ class MemberRepositoryTest {
         assertThat(totalElementsGreaterThanAGe).isEqualTo(19);
     }
 
+    @Test
+    @DisplayName("slice 테스트 (count 쿼리 없음)")
+    void slice() {
+        // given
+        for (int i = 1; i <= 6; i++) {
+            memberRepository.save(Member.builder()
+                    .age(i)
+                    .userName("member" + i)
+                    .build());
+        }
+
+        // when
+        Slice<Member> firstSlice = memberRepository.findSliceBy(PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "age")));
+        Slice<Member> lastSlice = memberRepository.findSliceBy(PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "age")));
+
+        // then
+        assertThat(firstSlice.getContent()).hasSize(5);
+        assertThat(firstSlice.hasNext()).isTrue();
+        assertThat(lastSlice.getContent()).extracting(Member::getAge).containsExactly(1);
+        assertThat(lastSlice.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("회원 수 캐시는 갱신 전까지 이전 값")
+    void memberCountCache() {
+        // given
+        memberRepository.save(Member.builder().userName("member1").build());
+        long before = memberCountCache.refresh();
+
+        // when
+        memberRepository.save(Member.builder().userName("member2").build());
+        long cached = memberCountCache.get();
+        long refreshed = memberCountCache.refresh();
+
+        // then
+        assertThat(before).isEqualTo(1);
+        assertThat(cached).isEqualTo(1);
+        assertThat(refreshed).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("count 캐시 - 저장, bulk update 시 무효화")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Member 를 저장한 트랜잭션 안에서는 캐시를 건너뛰므로 호출마다 따로 커밋
+    void countCacheInvalidation() {
+        // given
+        memberRepository.save(Member.builder().userName("member1").age(10).build());
+        memberRepository.save(Member.builder().userName("member2").age(20).build());
+        com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache = (com.github.benmanes.caffeine.cache.Cache<?, ?>)
+                cacheManager.getCache(MemberQueryCacheConfig.MEMBER_QUERY).getNativeCache();
+        long hitsBefore = nativeCache.stats().hitCount();
+
+        // when
+        int first = memberRepository.countByAgeGreaterThan(15);
+        int cached = memberRepository.countByAgeGreaterThan(15);
+        long sameAgeCount = memberRepository.countByAge(15); // 인자가 같아도 다른 메서드는 다른 key
+
+        memberRepository.save(Member.builder().userName("member3").age(30).build());
+        int afterSave = memberRepository.countByAgeGreaterThan(15);
+
+        memberRepository.bulkAgePlus(20);
+        int afterBulk = memberRepository.countByAgeGreaterThan(100);
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(cached).isEqualTo(1);
+        assertThat(nativeCache.stats().hitCount() - hitsBefore).isEqualTo(1);
+        assertThat(sameAgeCount).isEqualTo(0);
+        assertThat(afterSave).isEqualTo(2);
+        assertThat(afterBulk).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("count 캐시 - 같은 트랜잭션에 flush 안 된 변경이 있으면 캐시를 건너뜀")
+    void countCacheBypassWhenDirty() {
+        // given
+        Member member = memberRepository.save(Member.builder().userName("member1").age(10).build());
+        int before = memberRepository.countByAgeGreaterThan(15);
+
+        // when
+        member.setAge(20); // 변경 감지 대상, 아직 flush 전 (저장한 Member 가 영속 상태라 before 도 캐시를 건너뜀)
+        int dirty = memberRepository.countByAgeGreaterThan(15);
+
+        // then
+        assertThat(before).isEqualTo(0);
+        assertThat(dirty).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("캐시된 count 로 paging")
+    void pagingWithCachedCount() {
+        // given
+        for (int i = 1; i < 30; i++) {
+            memberRepository.save(Member.builder()
+                    .age(i)
+                    .userName("member" + i)
+                    .build());
+        }
+        Pageable pageRequest = PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "age"));
+
+        // when
+        Page<Member> page = memberRepository.findPageByAgeGreaterThanWithCachedCount(10, pageRequest);
+        Page<Member> samePage = memberRepository.findPageByAgeGreaterThanWithCachedCount(10, pageRequest);
+
+        // then
+        assertThat(page.getContent()).extracting(Member::getAge).containsExactly(29, 28, 27, 26, 25);
+        assertThat(page.getTotalElements()).isEqualTo(19);
+        assertThat(samePage.getTotalElements()).isEqualTo(19);
+    }
+
     @Test
     @DisplayName("bulk data 수정 테스트")
     void bulkUpdate() {
@@ -0,0 +1,95 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.dataset.DatasetGenerator;
+import jpabook.jpashop.dataset.DatasetResult;
+import jpabook.jpashop.dataset.DatasetSpec;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    벤치마크용 애플리케이션 컨텍스트 + 내장 H2
+    주문 수(orders)마다 별도의 메모리 DB를 띄우고 DatasetGenerator(JDBC batch insert)로 채움 (JPA persist로는 100만 건 적재가 너무 느림)
+    - order_summary(simple-orders v3/v4가 읽는 테이블)도 같이 채움
+    - InitDb가 넣은 데이터 뒤에 이어서 들어가고, 적재 후 시퀀스도 그 뒤로 옮겨짐
+    - -Dbench.datasource.url=jdbc:mysql://... (username, password 포함) 로 MySQL 에서도 실행 가능
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private static final int BOOK_COUNT = 100;
+
+    private final ConfigurableApplicationContext context;
+    private final TransactionTemplate readOnlyTx;
+    private DatasetResult dataset;
+
+    private BenchmarkDatabase(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public static BenchmarkDatabase start(int orders, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench" + orders + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.open-in-view=false",
+                "spring.main.banner-mode=off",
+                "decorator.datasource.enabled=false", // p6spy 로깅 비용은 측정에서 제외
+                "logging.level.root=warn"
+        ));
+        properties.addAll(List.of(extraProperties));
+        String url = System.getProperty("bench.datasource.url");
+        if (url != null) {
+            properties.add("spring.datasource.url=" + url);
+            properties.add("spring.datasource.username=" + System.getProperty("bench.datasource.username", "root"));
+            properties.add("spring.datasource.password=" + System.getProperty("bench.datasource.password", ""));
+            properties.add("spring.datasource.driver-class-name=" + System.getProperty("bench.datasource.driver", "com.mysql.cj.jdbc.Driver"));
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(String[]::new))
+                .run();
+        BenchmarkDatabase database = new BenchmarkDatabase(context);
+        database.seed(orders);
+        return database;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // OSIV 대신 읽기 전용 트랜잭션 안에서 실행 (v1, v2의 지연 로딩이 동작하도록)
+    public <T> T readOnly(java.util.function.Supplier<T> supplier) {
+        return readOnlyTx.execute(status -> supplier.get());
+    }
+
+    public <T> T inTransaction(java.util.function.Supplier<T> supplier) {
+        return new TransactionTemplate(readOnlyTx.getTransactionManager()).execute(status -> supplier.get());
+    }
+
+    public DatasetResult dataset() {
+        return dataset;
+    }
+
+    // 회원 : 주문 10건당 1명, 상품 100개, 주문당 주문상품 2건, 모두 ORDER 상태 (seed 고정)
+    private void seed(int orders) {
+        DatasetSpec spec = new DatasetSpec(Math.max(orders / 10, 1), BOOK_COUNT, orders, 2, 2, 3, 10_000, 19_900,
+                Integer.MAX_VALUE, 0.2, 0.8, 0, 0, 1, 42);
+        dataset = context.getBean(DatasetGenerator.class).generate(spec);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
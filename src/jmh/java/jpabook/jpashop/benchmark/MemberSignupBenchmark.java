@@ -0,0 +1,84 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.service.MemberService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    회원 가입 처리량
+    - join : 가입 전 이름 조회 쿼리 + insert
+    - signup : 유니크 인덱스에 맡기고 insert 만 (bloom=true 면 Bloom filter 로 의심되는 이름만 조회)
+    새 이름 가입(newName)과 이미 있는 이름 가입(duplicateName, 예외로 끝남)을 따로 측정
+    기존 회원 1만 명 (BenchmarkDatabase 주문 10만 건 기준)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class MemberSignupBenchmark {
+
+    @Param({"join", "signup"})
+    public String mode;
+
+    @Param({"false", "true"})
+    public boolean bloom;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private BenchmarkDatabase database;
+    private MemberService memberService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(100_000, "jpashop.member.bloom.enabled=" + bloom);
+        memberService = database.getBean(MemberService.class);
+        memberService.warmUpNameFilter(); // 시작 시점 이후에 적재된 회원 이름도 필터에 반영
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Object newName(SqlCounters sql) {
+        return sql.count(() -> signup("new-" + mode + bloom + "-" + sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Object duplicateName(SqlCounters sql) {
+        return sql.count(() -> {
+            try {
+                return signup("member" + (database.dataset().firstMemberId() + sequence.incrementAndGet() % database.dataset().members())); // BenchmarkDatabase 가 넣은 이름 (member + 회원 id)
+            } catch (IllegalStateException e) {
+                return null;
+            }
+        });
+    }
+
+    private Long signup(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "street", "1111"));
+        return "join".equals(mode) ? memberService.join(member) : memberService.signup(member);
+    }
+}
@@ -0,0 +1,124 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.api.controller.OrderApiController;
+import jpabook.jpashop.api.controller.OrderSimpleApiController;
+import jpabook.jpashop.repository.order.OrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    주문 조회 전략 비교 (OrderApiController v1~v7, OrderSimpleApiController v1~v4)
+    - Throughput : ops/s
+    - SampleTime : p50, p99 지연시간
+    - gc 프로파일러 : gc.alloc.rate.norm (op당 할당 바이트)
+    - SqlCounters : sqlStatements / sqlInvocations (op당 SQL 수)
+
+    실행 : ./gradlew jmh
+          주문 수 지정 : ./gradlew jmh -Pjmh.orders=1000,100000 (100만 건은 힙 4g 이상 필요)
+    v1, v2는 findAllByString(최대 1000건), 나머지는 전체 주문을 읽으므로 주문 수가 클수록 차이가 벌어짐
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderReadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int orders;
+
+    private BenchmarkDatabase database;
+    private OrderApiController orderApi;
+    private OrderSimpleApiController simpleOrderApi;
+    private OrderRepository orderRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(orders);
+        orderApi = database.getBean(OrderApiController.class);
+        simpleOrderApi = database.getBean(OrderSimpleApiController.class);
+        orderRepository = database.getBean(OrderRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    //== /api/v*/orders ==//
+    @Benchmark
+    public Object ordersV1_entity(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(orderApi::orderV1));
+    }
+
+    @Benchmark
+    public Object ordersV2_dto(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(orderApi::orderV2));
+    }
+
+    @Benchmark
+    public Object ordersV3_fetchJoin(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(orderApi::ordersV3));
+    }
+
+    @Benchmark
+    public Object ordersV4_queryDto(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(orderApi::ordersV4));
+    }
+
+    @Benchmark
+    public Object ordersV5_inQuery(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(orderApi::ordersV5));
+    }
+
+    @Benchmark
+    public Object ordersV6_flat(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(orderApi::ordersV6));
+    }
+
+    @Benchmark
+    public Object ordersV7_groupedFirstPage(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(() -> orderApi.ordersV7(null, 100)));
+    }
+
+    //== /api/v*/simple-orders ==//
+    @Benchmark
+    public Object simpleOrdersV1_entity(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(simpleOrderApi::ordersV1));
+    }
+
+    @Benchmark
+    public Object simpleOrdersV2_dto(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(simpleOrderApi::ordersV2));
+    }
+
+    // v3, v4는 현재 order_summary를 읽음. 이전 방식(fetch join, dto 직접 조회)도 비교용으로 같이 측정
+    @Benchmark
+    public Object simpleOrdersV3_summary(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(simpleOrderApi::ordersV3));
+    }
+
+    @Benchmark
+    public Object simpleOrdersV3_fetchJoin(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(orderRepository::findAllWithMemberDelivery));
+    }
+
+    @Benchmark
+    public Object simpleOrdersV4_queryDto(SqlCounters sql) {
+        return sql.count(() -> database.readOnly(orderRepository::findOrderDtos));
+    }
+}
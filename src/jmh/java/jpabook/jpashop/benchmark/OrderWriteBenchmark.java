@@ -0,0 +1,103 @@
+package jpabook.jpashop.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    주문 저장 처리량 (시퀀스 id + JDBC batch, JdbcBatchConfig)
+    - placeOrder : OrderService.order 1건 (orders, delivery, order_item, order_summary insert)
+    - seedOrders : 한 트랜잭션에서 주문 1000건 persist (초기 데이터 적재)
+    batchSize=0 은 batch 없이 statement 마다 왕복하는 경우
+    idStrategy=identity 는 META-INF/orm-identity.xml 로 Order, OrderItem, Member 를 IDENTITY 로 되돌린 경우 (insert 가 persist 시점에 바로 나가서 batch 불가)
+    op당 SQL 수(sqlStatements / sqlInvocations)는 하이버네이트가 만든 statement 수라서 batch 여부와 관계없이 같음 -> 차이는 ops/s 로 확인
+    MySQL : ./gradlew jmh -Pjmh.includes=OrderWriteBenchmark -Dbench.datasource.url=jdbc:mysql://localhost:3306/jpashop_bench
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderWriteBenchmark {
+
+    private static final int SEED_ORDERS = 1_000;
+
+    @Param({"0", "50"})
+    public int batchSize;
+
+    @Param({"sequence", "identity"})
+    public String idStrategy;
+
+    private BenchmarkDatabase database;
+    private OrderService orderService;
+    private EntityManager em;
+    private Long memberId;
+    private Long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = "identity".equals(idStrategy)
+                ? BenchmarkDatabase.start(0, "jpashop.jpa.batch-size=" + batchSize,
+                "spring.jpa.mapping-resources=META-INF/orm-identity.xml")
+                : BenchmarkDatabase.start(0, "jpashop.jpa.batch-size=" + batchSize);
+        orderService = database.getBean(OrderService.class);
+        em = database.getBean(EntityManager.class);
+        database.readOnly(() -> {
+            memberId = em.createQuery("select m.id from Member m order by m.id", Long.class)
+                    .setMaxResults(1).getSingleResult();
+            itemId = em.createQuery("select i.id from Item i order by i.id desc", Long.class)
+                    .setMaxResults(1).getSingleResult();
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Object placeOrder(SqlCounters sql) {
+        return sql.count(() -> orderService.order(memberId, itemId, 1));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MINUTES)
+    public Object seedOrders(SqlCounters sql) {
+        return sql.count(() -> database.inTransaction(() -> {
+            Member member = em.getReference(Member.class, memberId);
+            Item item = em.find(Item.class, itemId);
+            for (int i = 0; i < SEED_ORDERS; i++) {
+                Delivery delivery = new Delivery();
+                em.persist(Order.createOrder(member, delivery, OrderItem.createOrderItem(item, item.getPrice(), 1)));
+                if ((i + 1) % 500 == 0) {
+                    em.flush();
+                    em.clear();
+                    member = em.getReference(Member.class, memberId);
+                    item = em.find(Item.class, itemId);
+                }
+            }
+            return SEED_ORDERS;
+        }));
+    }
+}
@@ -0,0 +1,36 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.monitoring.SqlStatementRecorder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.function.Supplier;
+
+/*
+    벤치마크 호출 동안 실행된 SQL 수 (SqlStatementRecorder로 집계)
+    EVENTS 카운터는 JMH가 쓰레드/반복별 값을 합쳐서 보여주므로 비율(sql/op)을 직접 내보내면 합쳐진 비율이 나옴
+    -> 원래 개수 sqlStatements, sqlInvocations 를 그대로 내보내고 op당 SQL 수는 sqlStatements / sqlInvocations 로 계산
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class SqlCounters {
+
+    public long sqlStatements;
+    public long sqlInvocations;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        sqlStatements = 0;
+        sqlInvocations = 0;
+    }
+
+    <T> T count(Supplier<T> supplier) {
+        SqlStatementRecorder.Recorded<T> recorded = SqlStatementRecorder.recordResult(supplier);
+        sqlStatements += recorded.stats().getTotal();
+        sqlInvocations++;
+        return recorded.result();
+    }
+}
@@ -0,0 +1,58 @@
+package jpabook.jpashop.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    endpoint 별 지연시간 히스토그램 (1us ~ 1분, 유효숫자 3자리)
+    - corrected : 원래 보냈어야 할 시각(스케줄)부터 응답까지. 서버가 느려져서 요청이 밀린 시간까지 포함 (coordinated omission 보정)
+    - service   : 실제로 보낸 시각부터 응답까지. 부하 발생기가 밀려서 늦게 보낸 시간은 빠짐
+    두 값의 차이가 크면 부하 발생기(또는 동시성 한도)가 서버 응답을 기다리느라 요청을 제때 못 보낸 것
+    completed : 측정 구간 안에 응답이 끝난 성공 요청 수 (워밍업 중에 보낸 요청 포함, 처리량 계산용)
+    timeouts  : 부하 종료 후 대기 시간 안에 끝나지 않은 요청 (errors 에도 포함)
+ */
+final class EndpointStats {
+
+    private static final long MAX_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    final String endpoint;
+    final Histogram corrected = new ConcurrentHistogram(1_000, MAX_NANOS, 3);
+    final Histogram service = new ConcurrentHistogram(1_000, MAX_NANOS, 3);
+    final LongAdder errors = new LongAdder();
+    final LongAdder completed = new LongAdder();
+    final LongAdder timeouts = new LongAdder();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(long intendedNanos, long sentNanos, long doneNanos, boolean success) {
+        corrected.recordValue(clamp(doneNanos - intendedNanos));
+        service.recordValue(clamp(doneNanos - sentNanos));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    // 끝나지 않은 요청은 예정 시각부터 포기한 시점까지를 지연시간으로 기록
+    void recordTimeout(long intendedNanos, long abandonedNanos) {
+        corrected.recordValue(clamp(abandonedNanos - intendedNanos));
+        errors.increment();
+        timeouts.increment();
+    }
+
+    void reset() {
+        corrected.reset();
+        service.reset();
+        errors.reset();
+        completed.reset();
+        timeouts.reset();
+    }
+
+    private static long clamp(long nanos) {
+        return Math.max(1_000, Math.min(nanos, MAX_NANOS));
+    }
+}
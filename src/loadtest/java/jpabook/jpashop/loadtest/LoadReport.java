@@ -0,0 +1,105 @@
+package jpabook.jpashop.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    endpoint 별 처리량, p50/p99/p999 (corrected 기준, ms) 출력 + JSON 저장 + 기준(baseline) 결과와 비교
+    처리량 = 측정 구간 안에 끝난 성공 응답 수 / 측정 시간 (보낸 요청 수가 아님 -> 서버가 밀리거나 에러가 나면 줄어듦)
+    p99 가 threshold 이상 늘었거나 처리량이 threshold 이상 줄면 regression
+ */
+final class LoadReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    record EndpointResult(long count, long errors, long timeouts, double throughput,
+                          double p50Ms, double p99Ms, double p999Ms, double maxMs, double serviceP99Ms) {
+    }
+
+    private final Map<String, EndpointResult> results = new LinkedHashMap<>();
+    private final LoadRunner.Result run;
+
+    LoadReport(LoadRunner.Result run) {
+        this.run = run;
+        double seconds = run.measured().toNanos() / 1e9;
+        run.stats().forEach((endpoint, stats) -> {
+            Histogram corrected = stats.corrected;
+            long count = corrected.getTotalCount();
+            if (count == 0) {
+                return;
+            }
+            results.put(endpoint, new EndpointResult(
+                    count,
+                    stats.errors.sum(),
+                    stats.timeouts.sum(),
+                    stats.completed.sum() / seconds,
+                    ms(corrected.getValueAtPercentile(50)),
+                    ms(corrected.getValueAtPercentile(99)),
+                    ms(corrected.getValueAtPercentile(99.9)),
+                    ms(corrected.getMaxValue()),
+                    ms(stats.service.getValueAtPercentile(99))));
+        });
+    }
+
+    void print() {
+        System.out.printf("%n%-28s %8s %7s %8s %9s %9s %9s %9s %9s %12s%n",
+                "endpoint", "count", "errors", "timeouts", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)", "svc p99(ms)");
+        results.forEach((endpoint, r) -> System.out.printf("%-28s %8d %7d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                endpoint, r.count(), r.errors(), r.timeouts(), r.throughput(), r.p50Ms(), r.p99Ms(), r.p999Ms(), r.maxMs(), r.serviceP99Ms()));
+        if (run.coordinatedOmission()) {
+            System.out.printf("%n[경고] 요청이 예정 시각보다 최대 %d ms 늦게 나감 (coordinated omission)."
+                            + " worker 가 모자라거나 서버가 밀림 -> svc p99 는 실제보다 낮게 보이므로 p99(corrected) 를 볼 것%n",
+                    run.maxStartDelay().toMillis());
+        }
+        if (!run.drained()) {
+            System.out.println("\n[실패] 부하 종료 후 대기 시간 안에 끝나지 않은 요청이 있음 (timeouts 로 기록). 이 결과는 기준으로 쓰지 말 것");
+        }
+    }
+
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        MAPPER.writeValue(file.toFile(), results);
+    }
+
+    // regression 이 하나라도 있으면 true
+    boolean compare(Path baselineFile, double threshold) throws IOException {
+        if (!Files.exists(baselineFile)) {
+            System.out.println("\n기준 결과 없음 : " + baselineFile + " (--save-baseline 으로 저장)");
+            return false;
+        }
+        Map<String, EndpointResult> baseline = MAPPER.readValue(baselineFile.toFile(), new TypeReference<>() {
+        });
+        boolean regression = false;
+        System.out.printf("%n%-28s %14s %14s%n", "vs baseline", "req/s", "p99");
+        for (Map.Entry<String, EndpointResult> entry : results.entrySet()) {
+            EndpointResult before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            EndpointResult now = entry.getValue();
+            double throughputChange = change(before.throughput(), now.throughput());
+            double p99Change = change(before.p99Ms(), now.p99Ms());
+            boolean worse = throughputChange < -threshold || p99Change > threshold;
+            regression |= worse;
+            System.out.printf("%-28s %+13.1f%% %+13.1f%% %s%n",
+                    entry.getKey(), throughputChange * 100, p99Change * 100, worse ? "REGRESSION" : "");
+        }
+        return regression;
+    }
+
+    private static double change(double before, double now) {
+        return before == 0 ? 0 : (now - before) / before;
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+}
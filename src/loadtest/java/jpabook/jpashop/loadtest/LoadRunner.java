@@ -0,0 +1,138 @@
+package jpabook.jpashop.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+    고정 요청률(open model) 부하 발생기
+    i 번째 요청의 예정 시각 = 시작 + i / rate. 응답을 기다리지 않고 예정 시각마다 요청을 만들어 worker(concurrency 개)에 넘김
+    worker 가 모두 바쁘면 요청은 대기열에서 기다리고, 그 시간도 corrected 지연시간에 포함됨
+    (응답을 받고 나서 다음 요청을 보내는 방식은 서버가 느려질수록 요청을 덜 보내서 느린 구간이 통계에서 빠짐 = coordinated omission)
+    부하를 멈춘 뒤 1분(DRAIN_TIMEOUT) 안에 끝나지 않은 측정 요청은 timeout(에러)으로 기록하고, 결과에 drained=false 로 남김
+ */
+final class LoadRunner {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final HttpClient client;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    private final int rate;
+    private final int concurrency;
+
+    LoadRunner(HttpClient client, List<Scenario> scenarios, int rate, int concurrency) {
+        this.client = client;
+        this.scenarios = scenarios;
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        this.rate = rate;
+        this.concurrency = concurrency;
+    }
+
+    Result run(Duration warmup, Duration duration) throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> stats.computeIfAbsent(scenario.endpoint(), EndpointStats::new));
+        AtomicLong maxStartDelay = new AtomicLong();
+        Set<Pending> inFlight = ConcurrentHashMap.newKeySet(); // 측정 구간 요청 중 아직 끝나지 않은 것
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Scenario scenario = pick(random.nextInt(totalWeight));
+            var request = scenario.request().apply(random);
+            EndpointStats endpointStats = stats.get(scenario.endpoint());
+            boolean measured = intended >= measureFrom;
+            Pending pending = new Pending(intended, endpointStats);
+            if (measured) {
+                inFlight.add(pending);
+            }
+
+            workers.execute(() -> {
+                long sent = System.nanoTime();
+                boolean success;
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    success = response.statusCode() < 400;
+                } catch (IOException e) {
+                    success = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long done = System.nanoTime();
+                if (success && done >= measureFrom && done <= end) {
+                    endpointStats.completed.increment();
+                }
+                if (measured && inFlight.remove(pending)) {
+                    endpointStats.record(intended, sent, done, success);
+                    maxStartDelay.accumulateAndGet(sent - intended, Math::max);
+                }
+            });
+        }
+
+        workers.shutdown();
+        boolean drained = workers.awaitTermination(DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+        if (!drained) {
+            workers.shutdownNow();
+        }
+        long abandoned = System.nanoTime();
+        for (Pending pending : List.copyOf(inFlight)) {
+            if (inFlight.remove(pending)) {
+                pending.stats().recordTimeout(pending.intended(), abandoned);
+            }
+        }
+        return new Result(stats, duration, Duration.ofNanos(maxStartDelay.get()), intervalNanos, drained);
+    }
+
+    private record Pending(long intended, EndpointStats stats) {
+    }
+
+    private Scenario pick(int ticket) {
+        for (Scenario scenario : scenarios) {
+            ticket -= scenario.weight();
+            if (ticket < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    /*
+        maxStartDelay : 예정 시각보다 얼마나 늦게 요청을 보냈는지의 최댓값
+        요청 간격보다 크게 밀렸다면 coordinated omission 이 일어난 구간이 있었다는 뜻 -> service 지연시간만 보면 실제보다 좋게 보임
+        drained : 부하 종료 후 모든 요청이 끝났는지. false 면 결과를 믿을 수 없으므로 실행을 실패로 처리
+     */
+    record Result(Map<String, EndpointStats> stats, Duration measured, Duration maxStartDelay, long intervalNanos,
+                  boolean drained) {
+
+        boolean coordinatedOmission() {
+            return maxStartDelay.toNanos() > Math.max(intervalNanos * 10, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+}
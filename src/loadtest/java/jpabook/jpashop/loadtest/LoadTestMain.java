@@ -0,0 +1,129 @@
+package jpabook.jpashop.loadtest;
+
+import jpabook.jpashop.JpashopApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    부하 테스트 실행 : ./gradlew loadTest -Ploadtest.args="--rate=300 --duration=60s"
+    --target 이 없으면 애플리케이션을 내장 H2 + 임의 포트로 띄우고 DatasetGenerator 로 주문 --orders 건을 넣은 뒤 시작
+    members-search 는 Querydsl_study 앱(/v3/members)에 보내므로 그 앱을 따로 띄우고 --members-url 로 주소를 넘길 것
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        ConfigurableApplicationContext app = null;
+        String baseUrl = options.target();
+        Long memberId = options.memberId();
+        long[] itemIds = options.itemIds();
+        if (baseUrl == null) {
+            app = startApplication(options.orders());
+            baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            JdbcTemplate jdbc = app.getBean(JdbcTemplate.class);
+            memberId = jdbc.queryForObject("select min(member_id) from member", Long.class);
+            itemIds = jdbc.queryForList("select item_id from item", Long.class).stream().mapToLong(Long::longValue).toArray();
+        }
+
+        try {
+            List<Scenario> scenarios = scenarios(options, baseUrl, memberId, itemIds);
+            System.out.printf("rate=%d/s, concurrency=%d, warmup=%s, duration=%s, scenarios=%s%n",
+                    options.rate(), options.concurrency(), options.warmup(), options.duration(),
+                    scenarios.stream().map(s -> s.name() + ":" + s.weight()).toList());
+
+            LoadRunner.Result result = new LoadRunner(client, scenarios, options.rate(), options.concurrency())
+                    .run(options.warmup(), options.duration());
+
+            LoadReport report = new LoadReport(result);
+            report.print();
+            report.write(options.report());
+            boolean regression = report.compare(options.baseline(), options.regressionThreshold());
+            if (options.saveBaseline() && result.drained()) {
+                report.write(options.baseline());
+                System.out.println("기준 결과 저장 : " + options.baseline());
+            }
+            if (regression || !result.drained()) {
+                System.exit(1);
+            }
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    // 데이터는 InitDb 의 DatasetGenerator 로 적재 (재고는 주문이 실패하지 않을 만큼)
+    private static ConfigurableApplicationContext startApplication(int orders) {
+        return new SpringApplicationBuilder(JpashopApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "decorator.datasource.enabled=false",
+                        "jpashop.dataset.enabled=true",
+                        "jpashop.dataset.orders=" + orders,
+                        "jpashop.dataset.members=" + Math.max(orders / 10, 1),
+                        "jpashop.dataset.stock-quantity=1000000000",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn")
+                .run();
+    }
+
+    private static List<Scenario> scenarios(LoadTestOptions options, String baseUrl, Long memberId, long[] itemIds) {
+        List<Scenario> scenarios = new ArrayList<>();
+        options.scenarios().forEach((name, weight) -> {
+            switch (name) {
+                case "order" -> {
+                    if (memberId == null || itemIds == null || itemIds.length == 0) {
+                        throw new IllegalArgumentException("--target 사용 시 order 시나리오는 --member-id, --item-ids 가 필요합니다.");
+                    }
+                    scenarios.add(new Scenario(name, "POST /api/v2/orders/cart", weight, random -> json(baseUrl + "/api/v2/orders/cart",
+                            "{\"memberId\":" + memberId + ",\"items\":[{\"itemId\":" + itemIds[random.nextInt(itemIds.length)] + ",\"count\":1}]}")));
+                }
+                case "orders-page" -> scenarios.add(new Scenario(name, "GET /api/v3.1/orders", weight, random ->
+                        get(baseUrl + "/api/v3.1/orders?offset=" + random.nextInt(Math.max(options.orders() - 20, 1)) + "&limit=20")));
+                case "members-search" -> {
+                    if (options.membersUrl() == null) {
+                        System.out.println("members-search 건너뜀 : --members-url 없음 (Querydsl_study 앱 주소)");
+                        return;
+                    }
+                    scenarios.add(new Scenario(name, "GET /v3/members", weight, random ->
+                            get(options.membersUrl() + "/v3/members?page=" + random.nextInt(10) + "&size=20&ageGoe=10")));
+                }
+                default -> throw new IllegalArgumentException("알 수 없는 시나리오 : " + name);
+            }
+        });
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("실행할 시나리오가 없습니다.");
+        }
+        return scenarios;
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static HttpRequest json(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
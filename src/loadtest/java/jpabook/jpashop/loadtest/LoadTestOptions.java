@@ -0,0 +1,80 @@
+package jpabook.jpashop.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    --rate=200                  초당 요청 수 (open model : 응답이 늦어도 이 간격대로 요청을 만듦)
+    --concurrency=32            동시에 보낼 수 있는 요청 수
+    --duration=60s --warmup=10s 측정 시간, 측정 전 워밍업 시간 (워밍업 구간은 결과에서 제외)
+    --scenarios=order:1,orders-page:5,members-search:2   시나리오:가중치
+    --target=http://host:8080   지정하면 앱을 띄우지 않고 이미 떠 있는 서버로 보냄 (--member-id, --item-ids 필요)
+    --members-url=http://localhost:8081  Querydsl_study 앱 주소 (/v3/members). 없으면 members-search 는 건너뜀
+    --orders=1000               내장 H2 로 띄울 때 미리 넣어둘 주문 수
+    --baseline=build/loadtest/baseline.json --save-baseline   기준 결과와 비교 / 이번 결과를 기준으로 저장
+ */
+record LoadTestOptions(
+        int rate,
+        int concurrency,
+        Duration duration,
+        Duration warmup,
+        Map<String, Integer> scenarios,
+        String target,
+        String membersUrl,
+        Long memberId,
+        long[] itemIds,
+        int orders,
+        Path report,
+        Path baseline,
+        boolean saveBaseline,
+        double regressionThreshold) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("알 수 없는 인자 : " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+
+        Map<String, Integer> scenarios = new LinkedHashMap<>();
+        for (String entry : values.getOrDefault("scenarios", "order:1,orders-page:5,members-search:2").split(",")) {
+            String[] nameWeight = entry.split(":");
+            scenarios.put(nameWeight[0].trim(), nameWeight.length > 1 ? Integer.parseInt(nameWeight[1].trim()) : 1);
+        }
+
+        String itemIds = values.get("item-ids");
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                parseDuration(values.getOrDefault("duration", "60s")),
+                parseDuration(values.getOrDefault("warmup", "10s")),
+                scenarios,
+                values.get("target"),
+                values.get("members-url"),
+                values.containsKey("member-id") ? Long.valueOf(values.get("member-id")) : null,
+                itemIds == null ? null : java.util.Arrays.stream(itemIds.split(",")).mapToLong(Long::parseLong).toArray(),
+                Integer.parseInt(values.getOrDefault("orders", "1000")),
+                Path.of(values.getOrDefault("report", "build/loadtest/report.json")),
+                Path.of(values.getOrDefault("baseline", "build/loadtest/baseline.json")),
+                Boolean.parseBoolean(values.getOrDefault("save-baseline", "false")),
+                Double.parseDouble(values.getOrDefault("regression-threshold", "0.10")));
+    }
+
+    // 10s, 500ms, 2m
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("시간 형식 오류 : " + value);
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package jpabook.jpashop.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/*
+    요청 하나를 만드는 방법 + 가중치. 같은 endpoint 이름끼리 지연시간을 모아서 집계함
+ */
+record Scenario(String name, String endpoint, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+}
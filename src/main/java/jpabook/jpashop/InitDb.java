@@ -3,10 +3,14 @@ package jpabook.jpashop;
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import jpabook.jpashop.dataset.DatasetGenerator;
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.support.SequenceAligner;
+import jpabook.jpashop.service.OrderSummaryRebuildService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,11 +20,22 @@ import org.springframework.transaction.annotation.Transactional;
 public class InitDb {
 
     private final InitService initService;
+    private final OrderSummaryRebuildService orderSummaryRebuildService;
+    private final DatasetGenerator datasetGenerator;
+    private final SequenceAligner sequenceAligner;
+
+    @Value("${jpashop.dataset.enabled:false}")
+    private boolean datasetEnabled;
 
     @PostConstruct
     public void init() { // 애플리케이션 로딩시점에 생성된 후 실행됨
+        sequenceAligner.alignAll(); // IDENTITY 시절 데이터가 남은 DB 에서 시퀀스가 기존 id 와 겹치지 않도록
         initService.dbInit1();
         initService.dbInit2();
+        orderSummaryRebuildService.rebuild(); // em.persist로 직접 넣은 주문은 order_summary에 없으므로 채워줌
+        if (datasetEnabled) {
+            datasetGenerator.generateConfigured(); // 성능 테스트용 대량 데이터 (order_summary 까지 직접 채움)
+        }
     }
 
     @Component
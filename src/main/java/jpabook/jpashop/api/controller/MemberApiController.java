@@ -39,7 +39,7 @@ public class MemberApiController {
     @PostMapping("/api/v1/members")
     public CreateMemberResponse saveMemberV1(@RequestBody @Valid Member member) {
 
-        Long id = memberService.join(member);
+        Long id = memberService.signup(member);
         return new CreateMemberResponse(id);
     }
 
@@ -49,7 +49,7 @@ public class MemberApiController {
         Member member = new Member();
         member.setName(createMemberRequest.getName());
 
-        Long id = memberService.join(member);
+        Long id = memberService.signup(member);
         return new CreateMemberResponse(id);
     }
 
@@ -1,19 +1,38 @@
 package jpabook.jpashop.api.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jpabook.jpashop.api.dto.BatchOrderRequest;
+import jpabook.jpashop.api.dto.CreateOrderRequest;
+import jpabook.jpashop.api.dto.CreateOrderResponse;
+import jpabook.jpashop.api.dto.CursorResult;
 import jpabook.jpashop.api.dto.OrderDto;
+import jpabook.jpashop.api.dto.Result;
 import jpabook.jpashop.repository.order.query.OrderFlatDto;
 import jpabook.jpashop.repository.order.query.OrderQueryDto;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.exception.InvalidPageRequestException;
+import jpabook.jpashop.repository.order.OrderCursor;
 import jpabook.jpashop.repository.order.OrderRepository;
 import jpabook.jpashop.repository.order.OrderSearch;
 import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.OrderBulkCancelService;
+import jpabook.jpashop.service.OrderBulkCancelService.BulkCancelResult;
+import jpabook.jpashop.service.OrderExportService;
+import jpabook.jpashop.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.List;
 
 import static java.util.stream.Collectors.*;
@@ -25,6 +44,15 @@ public class OrderApiController {
 
     private final OrderRepository orderRepository;
     private final OrderQueryRepository orderQueryRepository;
+    private final OrderExportService orderExportService;
+    private final OrderService orderService;
+    private final OrderBulkCancelService orderBulkCancelService;
+
+    @Value("${jpashop.query.concurrent:false}")
+    private boolean concurrentQuery; // 독립적인 쿼리를 동시에 실행하는 모드
+
+    @Value("${jpashop.query.max-page-size:1000}")
+    private int maxPageSize; // 커서 페이징(v3.1, v7) limit 상한
 
     @GetMapping("/api/v1/orders")
     public List<Order> orderV1() {
@@ -69,6 +97,28 @@ public class OrderApiController {
         return orders.stream().map(OrderDto::of).collect(toList());
     }
 
+    // after 파라미터가 있으면 커서 모드 (첫 페이지는 after= 로 빈 값 전달). 없으면 위의 offset 모드 그대로 동작
+    // limit 은 1 ~ maxPageSize, 잘못된 커서와 limit 은 400
+    @GetMapping(value = "/api/v3.1/orders", params = "after")
+    public CursorResult<List<OrderDto>> ordersV3_cursor(
+            @RequestParam(name = "after") String after,
+            @RequestParam(name = "limit", defaultValue = "100") int limit
+    ) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidPageRequestException("limit 은 1 ~ " + maxPageSize + " 사이여야 합니다.");
+        }
+        OrderCursor cursor;
+        try {
+            cursor = StringUtils.hasText(after) ? OrderCursor.decode(after) : null;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("잘못된 커서입니다.", e);
+        }
+        List<Order> orders = orderRepository.findAllWithMemberDelivery(cursor, limit);
+
+        String next = orders.size() < limit ? null : OrderCursor.from(orders.get(orders.size() - 1)).encode();
+        return new CursorResult<>(orders.stream().map(OrderDto::of).collect(toList()), next);
+    }
+
     // N+1 문제 발생
     @GetMapping("/api/v4/orders")
     public List<OrderQueryDto> ordersV4() {
@@ -77,6 +127,9 @@ public class OrderApiController {
 
     @GetMapping("/api/v5/orders")
     public List<OrderQueryDto> ordersV5() {
+        if (concurrentQuery) {
+            return orderQueryRepository.findAllByDto_concurrent();
+        }
         return orderQueryRepository.findAllByDto();
     }
 
@@ -84,4 +137,46 @@ public class OrderApiController {
     public List<OrderFlatDto> ordersV6() {
         return orderQueryRepository.findAllByDto_flat();
     }
+
+    // v6의 flat 조인으로 v5의 응답 형태를 만듦 (주문 id 페이지를 파생 테이블로 조인한 쿼리 1번). 페이징은 주문 단위, limit 은 1 ~ maxPageSize (다음 페이지는 마지막 orderId를 afterOrderId로 전달)
+    @GetMapping("/api/v7/orders")
+    public List<OrderQueryDto> ordersV7(
+            @RequestParam(name = "afterOrderId", required = false) Long afterOrderId,
+            @RequestParam(name = "limit", defaultValue = "100") int limit
+    ) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidPageRequestException("limit 은 1 ~ " + maxPageSize + " 사이여야 합니다.");
+        }
+        return orderQueryRepository.findAllByDto_grouped(afterOrderId, limit);
+    }
+
+    // v6와 같은 flat row지만 List로 모으지 않고 한 줄씩 바로 응답에 씀 (NDJSON)
+    @GetMapping("/api/v6/orders/export")
+    public void ordersV6_export(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        orderExportService.exportFlat(response.getOutputStream());
+    }
+
+    // 장바구니 주문 : 주문상품 여러 건을 주문 1건으로
+    @PostMapping("/api/v2/orders/cart")
+    public CreateOrderResponse orderCart(@RequestBody @Valid CreateOrderRequest request) {
+        Long id = orderService.orderCart(request.getMemberId(), request.toCartOrder().lines());
+        return new CreateOrderResponse(id);
+    }
+
+    // 일괄 주문 : 주문 여러 건을 한 트랜잭션으로 (하나라도 실패하면 전부 롤백)
+    @PostMapping("/api/v2/orders/batch")
+    public Result<List<Long>> orderBatch(@RequestBody @Valid BatchOrderRequest request) {
+        List<Long> ids = orderService.orderAll(request.getOrders().stream()
+                .map(CreateOrderRequest::toCartOrder)
+                .toList());
+        return new Result<>(ids);
+    }
+
+    // 일괄 취소 : memberId, orderId, orderDateFrom, orderDateTo 조건 (배송 완료된 주문은 skipped 로 집계)
+    @PostMapping("/api/v2/orders/cancel")
+    public BulkCancelResult cancelOrders(@ModelAttribute OrderSearch orderSearch) {
+        return orderBulkCancelService.cancelAll(orderSearch);
+    }
 }
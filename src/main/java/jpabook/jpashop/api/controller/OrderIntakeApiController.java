@@ -0,0 +1,31 @@
+package jpabook.jpashop.api.controller;
+
+import jakarta.validation.Valid;
+import jpabook.jpashop.api.dto.SubmitOrderRequest;
+import jpabook.jpashop.intake.OrderIntakeService;
+import jpabook.jpashop.intake.OrderTicket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+public class OrderIntakeApiController {
+
+    private final OrderIntakeService orderIntakeService;
+
+    // 접수만 하고 바로 티켓 반환 (jpashop.intake.enabled=false 면 저장까지 끝난 티켓)
+    @PostMapping("/api/v3/orders")
+    public ResponseEntity<OrderTicket> submitOrder(@RequestBody @Valid SubmitOrderRequest request) {
+        OrderTicket ticket = orderIntakeService.submit(request.getMemberId(), request.getItemId(), request.getCount());
+        HttpStatus status = ticket.status() == OrderTicket.Status.QUEUED ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(ticket);
+    }
+
+    @GetMapping("/api/v3/orders/tickets/{ticketId}")
+    public ResponseEntity<OrderTicket> ticket(@PathVariable("ticketId") String ticketId) {
+        OrderTicket ticket = orderIntakeService.findTicket(ticketId);
+        return ticket == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(ticket);
+    }
+}
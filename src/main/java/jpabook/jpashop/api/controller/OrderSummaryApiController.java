@@ -0,0 +1,20 @@
+package jpabook.jpashop.api.controller;
+
+import jpabook.jpashop.api.dto.Result;
+import jpabook.jpashop.service.OrderSummaryRebuildService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class OrderSummaryApiController {
+
+    private final OrderSummaryRebuildService orderSummaryRebuildService;
+
+    // order_summary 재구성 (재구성한 주문 수 반환)
+    @PostMapping("/api/order-summaries/rebuild")
+    public Result<Long> rebuild() {
+        return new Result<>(orderSummaryRebuildService.rebuild());
+    }
+}
@@ -0,0 +1,17 @@
+package jpabook.jpashop.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchOrderRequest {
+
+    @Valid
+    @NotEmpty
+    @Size(max = 1000) // 한 트랜잭션에서 처리하는 주문 수 제한
+    private List<CreateOrderRequest> orders;
+}
@@ -0,0 +1,27 @@
+package jpabook.jpashop.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jpabook.jpashop.service.OrderService.CartOrder;
+import jpabook.jpashop.service.OrderService.OrderLine;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CreateOrderRequest {
+
+    @NotNull
+    private Long memberId;
+
+    @Valid
+    @NotEmpty
+    private List<OrderLineRequest> items;
+
+    public CartOrder toCartOrder() {
+        return new CartOrder(memberId, items.stream()
+                .map(line -> new OrderLine(line.getItemId(), line.getCount()))
+                .toList());
+    }
+}
@@ -0,0 +1,12 @@
+package jpabook.jpashop.api.dto;
+
+import lombok.Data;
+
+@Data
+public class CreateOrderResponse {
+    private Long id;
+
+    public CreateOrderResponse(Long id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,11 @@
+package jpabook.jpashop.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CursorResult<T> {
+    private T data;
+    private String after; // 다음 페이지 요청 시 그대로 넘겨줄 커서. 마지막 페이지면 null
+}
@@ -0,0 +1,15 @@
+package jpabook.jpashop.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class OrderLineRequest {
+
+    @NotNull
+    private Long itemId;
+
+    @Positive
+    private int count;
+}
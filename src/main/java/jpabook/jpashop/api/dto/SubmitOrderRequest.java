@@ -0,0 +1,18 @@
+package jpabook.jpashop.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class SubmitOrderRequest {
+
+    @NotNull
+    private Long memberId;
+
+    @NotNull
+    private Long itemId;
+
+    @Positive
+    private int count;
+}
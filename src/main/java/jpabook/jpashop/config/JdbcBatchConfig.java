@@ -0,0 +1,33 @@
+package jpabook.jpashop.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    JDBC insert/update batch
+    Order, OrderItem, Member 의 id를 IDENTITY -> 시퀀스(pooled, allocationSize 50)로 변경
+    IDENTITY 는 persist 시점에 insert를 바로 실행해야 id를 알 수 있어서 batch가 불가능했음
+    -> 시퀀스는 50개 단위로 id를 미리 받아오므로 insert를 flush 시점까지 모아서 한 번에 보낼 수 있음
+       (MySQL처럼 시퀀스가 없는 DB는 하이버네이트가 orders_seq 같은 테이블로 대신 관리)
+    기존 IDENTITY 데이터가 있는 DB 는 시작 시 SequenceAligner 가 시퀀스를 max(id) 뒤로 옮김
+    비교용 IDENTITY 매핑 : spring.jpa.mapping-resources=META-INF/orm-identity.xml
+
+    jpashop.jpa.batch-size : 한 번에 보내는 statement 수 (0이면 batch 사용 안함)
+    order_inserts, order_updates : 테이블별로 모아야 orders, delivery, order_item 이 섞여도 batch가 끊기지 않음
+ */
+@Configuration
+public class JdbcBatchConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer(@Value("${jpashop.jpa.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+            properties.put(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+}
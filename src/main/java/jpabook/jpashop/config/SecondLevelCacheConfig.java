@@ -0,0 +1,75 @@
+package jpabook.jpashop.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/*
+    하이버네이트 2차 캐시 (JCache + Caffeine, 애플리케이션 메모리 안에서 동작)
+    Item(Book, Album, Movie 포함), Member, Delivery 는 변경보다 조회가 훨씬 많으므로 em.find 시 DB 대신 캐시에서 가져옴
+    영역(region)별로 최대 개수(max-size)와 TTL(ttl)을 설정할 수 있음 ex) jpashop.cache.item.max-size=10000, jpashop.cache.item.ttl=10m
+    READ_WRITE 전략이라 변경감지(ItemService.updateItem, MemberService.update)로 수정된 엔티티는 커밋 시점에 캐시도 같이 무효화/갱신됨
+
+    지표 : hibernate.second.level.cache.requests{region, result=hit|miss}, hibernate.second.level.cache.puts (hibernate-micrometer)
+          cache.evictions{cache=region} 등 Caffeine 통계 (JCacheMetrics)
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String ITEM_REGION = "jpashop.item";
+    public static final String MEMBER_REGION = "jpashop.member";
+    public static final String DELIVERY_REGION = "jpashop.delivery";
+
+    private static final List<String> REGIONS = List.of(ITEM_REGION, MEMBER_REGION, DELIVERY_REGION);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(Environment env) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        for (String region : REGIONS) {
+            String prefix = "jpashop.cache." + region.substring(region.indexOf('.') + 1);
+            long maxSize = env.getProperty(prefix + ".max-size", Long.class, 10_000L);
+            Duration ttl = env.getProperty(prefix + ".ttl", Duration.class, Duration.ofMinutes(10));
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true); // region 별 hit/miss 집계
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> REGIONS.forEach(region ->
+                JCacheMetrics.monitor(registry, secondLevelCacheManager.getCache(region), Tags.of("region", region)));
+    }
+}
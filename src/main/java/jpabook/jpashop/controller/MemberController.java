@@ -43,7 +43,7 @@ public class MemberController {
                                 .name(memberForm.getName())
                                 .address(address)
                                 .build();
-        memberService.join(member);
+        memberService.signup(member);
         return "redirect:/";
     }
 
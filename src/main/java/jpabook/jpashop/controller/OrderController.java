@@ -20,6 +20,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final int PAGER_WINDOW = 5;
+
     private final OrderService orderService;
     private final MemberService memberService;
     private final ItemService itemService;
@@ -46,9 +48,22 @@ public class OrderController {
     }
 
     @GetMapping("/orders")
-    public String orderList(@ModelAttribute("orderSearch")OrderSearch orderSearch, Model model) {
-        List<Order> orders = orderService.findOrders(orderSearch);
+    public String orderList(@ModelAttribute("orderSearch")OrderSearch orderSearch,
+                            @RequestParam(value = "page", defaultValue = "0") int page,
+                            @RequestParam(value = "size", defaultValue = "20") int size,
+                            Model model) {
+        int pageSize = Math.min(Math.max(size, 1), 100);
+        List<Order> orders = orderService.findOrders(orderSearch, Math.max(page, 0), pageSize);
+        long totalCount = orderService.countOrders(orderSearch);
         model.addAttribute("orders", orders);
+        model.addAttribute("page", Math.max(page, 0));
+        model.addAttribute("size", pageSize);
+        long totalPages = (totalCount + pageSize - 1) / pageSize;
+        model.addAttribute("totalPages", totalPages);
+        // 페이지 번호는 현재 페이지 앞뒤 PAGER_WINDOW 개만 (전체를 다 그리면 주문이 많을 때 링크가 수만 개)
+        long current = Math.min(Math.max(page, 0), Math.max(totalPages - 1, 0));
+        model.addAttribute("startPage", Math.max(0, current - PAGER_WINDOW));
+        model.addAttribute("endPage", Math.min(Math.max(totalPages - 1, 0), current + PAGER_WINDOW));
         log.info("========== Get ==========");
         log.info("orderSearch user : {}", orderSearch.getMemberName());
         log.info("orderSearch status : {}", orderSearch.getOrderStatus());
@@ -0,0 +1,61 @@
+package jpabook.jpashop.dataset;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+
+/*
+    <table>.csv 로 저장 (첫 줄은 컬럼명)
+    MySQL : LOAD DATA LOCAL INFILE 'member.csv' INTO TABLE member FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '"' IGNORE 1 LINES (컬럼...)
+    H2    : INSERT INTO member SELECT * FROM CSVREAD('member.csv')
+    null 은 MySQL LOAD DATA 의 NULL 표기인 \N 으로 씀
+ */
+class CsvRowSink implements RowSink {
+
+    private final BufferedWriter writer;
+
+    CsvRowSink(Path directory, String table, String... columns) throws IOException {
+        Files.createDirectories(directory);
+        this.writer = Files.newBufferedWriter(directory.resolve(table + ".csv"), StandardCharsets.UTF_8);
+        writer.write(String.join(",", columns));
+        writer.newLine();
+    }
+
+    @Override
+    public void add(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(format(values[i]));
+        }
+        writer.newLine();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "\\N";
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString().replace('T', ' ');
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,278 @@
+package jpabook.jpashop.dataset;
+
+import jpabook.jpashop.repository.support.SequenceAligner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+    성능 테스트용 합성 데이터 생성기 (회원, 상품, 주문, 주문상품, 배송, order_summary)
+    - em.persist 대신 JDBC batch insert 로 넣으므로 수백만 건도 적재 가능, 또는 CSV 로 저장해서 LOAD DATA 로 적재
+    - id 는 현재 max + 1(또는 spec.idBase) 부터 직접 지정하고, 적재 후 시퀀스를 그 뒤로 옮겨둠 (이후 JPA persist 와 충돌하지 않도록)
+    - 같은 DatasetSpec(seed, anchorDate, idBase 포함)이면 같은 데이터가 나옴. 회원 이름은 "member" + 회원 id
+    설정 : jpashop.dataset.* (InitDb 가 jpashop.dataset.enabled=true 일 때 사용)
+ */
+@Slf4j
+@Component
+public class DatasetGenerator {
+
+    private static final String[] CITIES = {"서울", "부산", "인천", "대구", "대전", "광주", "수원", "울산"};
+
+    private final JdbcTemplate jdbc;
+    private final SequenceAligner sequenceAligner;
+    private final int batchSize;
+    private final DatasetSpec configuredSpec;
+    private final String csvDirectory;
+
+    public DatasetGenerator(JdbcTemplate jdbc,
+                            SequenceAligner sequenceAligner,
+                            @Value("${jpashop.dataset.batch-size:1000}") int batchSize,
+                            @Value("${jpashop.dataset.members:10000}") int members,
+                            @Value("${jpashop.dataset.items:1000}") int items,
+                            @Value("${jpashop.dataset.orders:100000}") int orders,
+                            @Value("${jpashop.dataset.min-lines-per-order:1}") int minLinesPerOrder,
+                            @Value("${jpashop.dataset.max-lines-per-order:3}") int maxLinesPerOrder,
+                            @Value("${jpashop.dataset.max-count:3}") int maxCount,
+                            @Value("${jpashop.dataset.min-price:1000}") int minPrice,
+                            @Value("${jpashop.dataset.max-price:50000}") int maxPrice,
+                            @Value("${jpashop.dataset.stock-quantity:1000000}") int stockQuantity,
+                            @Value("${jpashop.dataset.hot-item-ratio:0.2}") double hotItemRatio,
+                            @Value("${jpashop.dataset.hot-line-share:0.8}") double hotLineShare,
+                            @Value("${jpashop.dataset.cancel-ratio:0.05}") double cancelRatio,
+                            @Value("${jpashop.dataset.delivered-ratio:0.5}") double deliveredRatio,
+                            @Value("${jpashop.dataset.days:365}") int days,
+                            @Value("${jpashop.dataset.seed:42}") long seed,
+                            @Value("${jpashop.dataset.anchor-date:}") String anchorDate,
+                            @Value("${jpashop.dataset.id-base:0}") long idBase,
+                            @Value("${jpashop.dataset.csv-dir:}") String csvDirectory) {
+        this.jdbc = jdbc;
+        this.sequenceAligner = sequenceAligner;
+        this.batchSize = batchSize;
+        this.configuredSpec = new DatasetSpec(members, items, orders, minLinesPerOrder, maxLinesPerOrder, maxCount,
+                minPrice, maxPrice, stockQuantity, hotItemRatio, hotLineShare, cancelRatio, deliveredRatio, days, seed,
+                anchorDate.isBlank() ? null : LocalDate.parse(anchorDate), idBase);
+        this.csvDirectory = csvDirectory;
+    }
+
+    public DatasetSpec configuredSpec() {
+        return configuredSpec;
+    }
+
+    // jpashop.dataset.csv-dir 이 있으면 CSV, 없으면 DB 에 적재
+    public DatasetResult generateConfigured() {
+        return csvDirectory.isBlank() ? generate(configuredSpec) : writeCsv(configuredSpec, Path.of(csvDirectory));
+    }
+
+    public DatasetResult generate(DatasetSpec spec) {
+        DatasetResult result = write(spec, true, (table, columns) -> new JdbcRowSink(jdbc, batchSize, table, columns));
+        sequenceAligner.alignAll();
+        return result;
+    }
+
+    // idBase 가 0 이면 지금 연결된 DB 의 max id 뒤로 이어지도록 id 를 매김 (다른 DB 에 넣을 거라면 idBase 를 지정하거나 빈 스키마에서 실행)
+    public DatasetResult writeCsv(DatasetSpec spec, Path directory) {
+        DatasetResult result = write(spec, false, (table, columns) -> new CsvRowSink(directory, table, columns));
+        log.info("dataset csv : {}", directory.toAbsolutePath());
+        return result;
+    }
+
+    private DatasetResult write(DatasetSpec spec, boolean database, RowSink.Factory sinks) {
+        long start = System.nanoTime();
+        long memberStart = startId(spec, database, "member", "member_id");
+        long itemStart = startId(spec, database, "item", "item_id");
+        long orderStart = Math.max(startId(spec, database, "orders", "order_id"), startId(spec, database, "delivery", "delivery_id")); // 배송 id = 주문 id
+        long orderItemStart = startId(spec, database, "order_item", "order_item_id");
+        SplittableRandom random = new SplittableRandom(spec.seed());
+
+        try {
+            byte[] memberCities = writeMembers(spec, sinks, random, memberStart);
+            int[] prices = writeItems(spec, sinks, random, itemStart);
+            long orderItems = writeOrders(spec, sinks, random, memberStart, memberCities, itemStart, prices, orderStart, orderItemStart);
+
+            DatasetResult result = new DatasetResult(memberStart, spec.members(), itemStart, spec.items(),
+                    orderStart, spec.orders(), orderItemStart, orderItems, Duration.ofNanos(System.nanoTime() - start));
+            log.info("dataset generated : {}", result);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] writeMembers(DatasetSpec spec, RowSink.Factory sinks, SplittableRandom random, long memberStart) throws IOException {
+        byte[] cities = new byte[spec.members()]; // 배송지, order_summary 에 회원 주소를 다시 써야 하므로 도시만 기억 (나머지는 id 로 계산)
+        try (RowSink members = sinks.open("member", "member_id", "name", "city", "street", "zipcode", "version")) {
+            for (int i = 0; i < spec.members(); i++) {
+                cities[i] = (byte) random.nextInt(CITIES.length);
+                long id = memberStart + i;
+                members.add(id, memberName(id), CITIES[cities[i]], street(id), zipcode(id), 0);
+            }
+        }
+        return cities;
+    }
+
+    // 상품 종류는 책 80%, 앨범 10%, 영화 10% (SINGLE_TABLE 이므로 item 테이블 하나)
+    private int[] writeItems(DatasetSpec spec, RowSink.Factory sinks, SplittableRandom random, long itemStart) throws IOException {
+        int[] prices = new int[spec.items()];
+        try (RowSink items = sinks.open("item", "item_id", "dtype", "name", "price", "stock_quantity", "version",
+                "author", "isbn", "artist", "etc", "director", "actor")) {
+            for (int i = 0; i < spec.items(); i++) {
+                prices[i] = (spec.minPrice() + random.nextInt(spec.maxPrice() - spec.minPrice() + 1)) / 100 * 100;
+                long id = itemStart + i;
+                double kind = random.nextDouble();
+                if (kind < 0.8) {
+                    items.add(id, "B", "BOOK" + id, prices[i], spec.stockQuantity(), 0, "author" + (id % 1000), "isbn-" + id, null, null, null, null);
+                } else if (kind < 0.9) {
+                    items.add(id, "A", "ALBUM" + id, prices[i], spec.stockQuantity(), 0, null, null, "artist" + (id % 1000), null, null, null);
+                } else {
+                    items.add(id, "M", "MOVIE" + id, prices[i], spec.stockQuantity(), 0, null, null, null, null, "director" + (id % 1000), "actor" + (id % 1000));
+                }
+            }
+        }
+        return prices;
+    }
+
+    /*
+        batchSize 개 주문 단위로 배송 -> 주문 -> 주문상품 -> order_summary 순서로 flush (FK 순서)
+        인기 상품 : 상품 순서를 섞은 뒤 앞쪽 hotItemRatio 만큼을 인기 상품으로 보고 주문상품의 hotLineShare 를 거기서 고름
+     */
+    private long writeOrders(DatasetSpec spec, RowSink.Factory sinks, SplittableRandom random,
+                             long memberStart, byte[] memberCities,
+                             long itemStart, int[] prices,
+                             long orderStart, long orderItemStart) throws IOException {
+        int[] ranking = shuffledIndexes(spec.items(), random);
+        int hotItems = Math.max(1, (int) Math.round(spec.items() * spec.hotItemRatio()));
+        LocalDateTime today = (spec.anchorDate() == null ? LocalDate.now() : spec.anchorDate()).atStartOfDay();
+        long periodSeconds = spec.days() * 86_400L;
+        long orderItemId = orderItemStart;
+
+        try (RowSink deliveries = sinks.open("delivery", "delivery_id", "city", "street", "zipcode", "status");
+             RowSink orders = sinks.open("orders", "order_id", "member_id", "delivery_id", "order_date", "status", "version");
+             RowSink orderItems = sinks.open("order_item", "order_item_id", "order_id", "item_id", "order_price", "count");
+             RowSink summaries = sinks.open("order_summary", "order_id", "member_name", "order_date", "status", "city", "street", "zipcode")) {
+
+            List<Object[]> orderRows = new ArrayList<>(batchSize);
+            List<Object[]> orderItemRows = new ArrayList<>(batchSize * spec.maxLinesPerOrder());
+            List<Object[]> summaryRows = new ArrayList<>(batchSize);
+            int[] lineItems = new int[spec.maxLinesPerOrder()];
+
+            for (int i = 0; i < spec.orders(); i++) {
+                long orderId = orderStart + i;
+                int member = random.nextInt(spec.members());
+                long memberId = memberStart + member;
+                String city = CITIES[memberCities[member]];
+                Timestamp orderDate = Timestamp.valueOf(today.minusSeconds(random.nextLong(periodSeconds)));
+                boolean cancelled = random.nextDouble() < spec.cancelRatio();
+                boolean delivered = !cancelled && random.nextDouble() < spec.deliveredRatio(); // 배송 완료된 주문은 취소할 수 없음
+                String status = cancelled ? "CANCEL" : "ORDER";
+
+                deliveries.add(orderId, city, street(memberId), zipcode(memberId), delivered ? "COMP" : "READY");
+                orderRows.add(new Object[]{orderId, memberId, orderId, orderDate, status, 0});
+                summaryRows.add(new Object[]{orderId, memberName(memberId), orderDate, status, city, street(memberId), zipcode(memberId)});
+
+                int lines = spec.minLinesPerOrder() + random.nextInt(spec.maxLinesPerOrder() - spec.minLinesPerOrder() + 1);
+                for (int line = 0; line < lines; line++) {
+                    int item = pickItem(spec, random, ranking, hotItems, lineItems, line);
+                    lineItems[line] = item;
+                    orderItemRows.add(new Object[]{orderItemId++, orderId, itemStart + item, prices[item], 1 + random.nextInt(spec.maxCount())});
+                }
+
+                if (orderRows.size() == batchSize || i == spec.orders() - 1) {
+                    deliveries.flush();
+                    addAll(orders, orderRows);
+                    addAll(orderItems, orderItemRows);
+                    addAll(summaries, summaryRows);
+                }
+            }
+        }
+        return orderItemId - orderItemStart;
+    }
+
+    // 한 주문 안에서는 같은 상품이 두 번 나오지 않게 고름 (인기 상품이 부족하면 전체에서 고름)
+    private static int pickItem(DatasetSpec spec, SplittableRandom random, int[] ranking, int hotItems, int[] picked, int pickedCount) {
+        for (int attempt = 0; ; attempt++) {
+            int rank;
+            if (attempt >= 8 || hotItems == spec.items()) {
+                rank = random.nextInt(spec.items());
+            } else if (random.nextDouble() < spec.hotLineShare()) {
+                rank = random.nextInt(hotItems);
+            } else {
+                rank = hotItems + random.nextInt(spec.items() - hotItems);
+            }
+            int item = ranking[rank];
+            if (!contains(picked, pickedCount, item)) {
+                return item;
+            }
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] shuffledIndexes(int size, SplittableRandom random) {
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = tmp;
+        }
+        return indexes;
+    }
+
+    private static void addAll(RowSink sink, List<Object[]> rows) throws IOException {
+        for (Object[] row : rows) {
+            sink.add(row);
+        }
+        sink.flush();
+        rows.clear();
+    }
+
+    private static String memberName(long memberId) {
+        return "member" + memberId;
+    }
+
+    private static String street(long memberId) {
+        return (memberId % 500 + 1) + "번길 " + (memberId % 97 + 1);
+    }
+
+    private static String zipcode(long memberId) {
+        return String.format("%05d", memberId * 7919 % 100_000);
+    }
+
+    // idBase 를 지정했는데 DB 에 이미 그 이상의 id 가 있으면 충돌하므로 적재 전에 실패
+    private long startId(DatasetSpec spec, boolean database, String table, String idColumn) {
+        if (spec.idBase() == 0) {
+            return nextId(table, idColumn);
+        }
+        if (database && nextId(table, idColumn) > spec.idBase()) {
+            throw new IllegalArgumentException(table + " 에 이미 id " + spec.idBase() + " 이상의 데이터가 있습니다.");
+        }
+        return spec.idBase();
+    }
+
+    private long nextId(String table, String idColumn) {
+        Long max = jdbc.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+}
@@ -0,0 +1,18 @@
+package jpabook.jpashop.dataset;
+
+import java.time.Duration;
+
+/*
+    생성된 id 범위 : [firstXxxId, firstXxxId + 개수)
+ */
+public record DatasetResult(
+        long firstMemberId,
+        int members,
+        long firstItemId,
+        int items,
+        long firstOrderId,
+        int orders,
+        long firstOrderItemId,
+        long orderItems,
+        Duration elapsed) {
+}
@@ -0,0 +1,82 @@
+package jpabook.jpashop.dataset;
+
+import java.time.LocalDate;
+
+/*
+    생성할 데이터의 규모와 분포
+    - 주문상품 수 : 주문마다 [minLinesPerOrder, maxLinesPerOrder] 균등, 수량 : [1, maxCount] 균등
+    - 인기 상품 : 상품의 hotItemRatio 비율이 주문상품의 hotLineShare 비율을 차지 (기본 20% 상품이 80% 주문)
+    - 주문일 : 최근 days 일 사이에 균등, cancelRatio 비율은 CANCEL, 나머지 중 deliveredRatio 비율은 배송 완료(COMP)
+    - 주문일 기준일 : anchorDate 0시. null 이면 생성한 날 (날짜가 바뀌면 같은 seed 라도 주문일이 달라짐)
+    - id 시작값 : idBase 가 0 이면 테이블마다 현재 max(id) + 1 부터 (DB 상태에 따라 달라짐), 지정하면 모든 테이블이 idBase 부터
+    - 같은 seed, anchorDate, idBase 면 어디서 만들어도 같은 데이터
+ */
+public record DatasetSpec(
+        int members,
+        int items,
+        int orders,
+        int minLinesPerOrder,
+        int maxLinesPerOrder,
+        int maxCount,
+        int minPrice,
+        int maxPrice,
+        int stockQuantity,
+        double hotItemRatio,
+        double hotLineShare,
+        double cancelRatio,
+        double deliveredRatio,
+        int days,
+        long seed,
+        LocalDate anchorDate,
+        long idBase) {
+
+    public DatasetSpec {
+        if (members < 1 || items < 1 || orders < 0) {
+            throw new IllegalArgumentException("회원, 상품은 1 이상, 주문은 0 이상이어야 합니다.");
+        }
+        if (minLinesPerOrder < 1 || maxLinesPerOrder < minLinesPerOrder || maxLinesPerOrder > items) {
+            throw new IllegalArgumentException("주문상품 수 범위가 잘못되었습니다 : " + minLinesPerOrder + ".." + maxLinesPerOrder);
+        }
+        if (maxCount < 1 || minPrice < 0 || maxPrice < minPrice || days < 1) {
+            throw new IllegalArgumentException("수량, 가격, 기간 설정이 잘못되었습니다.");
+        }
+        if (!ratio(hotItemRatio) || !ratio(hotLineShare) || !ratio(cancelRatio) || !ratio(deliveredRatio)) {
+            throw new IllegalArgumentException("비율은 0 ~ 1 사이여야 합니다.");
+        }
+        if (idBase < 0) {
+            throw new IllegalArgumentException("id 시작값은 0(자동) 이상이어야 합니다 : " + idBase);
+        }
+    }
+
+    // 기준일은 오늘, id 는 현재 max 뒤로
+    public DatasetSpec(int members, int items, int orders, int minLinesPerOrder, int maxLinesPerOrder, int maxCount,
+                       int minPrice, int maxPrice, int stockQuantity, double hotItemRatio, double hotLineShare,
+                       double cancelRatio, double deliveredRatio, int days, long seed) {
+        this(members, items, orders, minLinesPerOrder, maxLinesPerOrder, maxCount, minPrice, maxPrice, stockQuantity,
+                hotItemRatio, hotLineShare, cancelRatio, deliveredRatio, days, seed, null, 0);
+    }
+
+    // 분포는 기본값, 규모와 seed 만 지정
+    public static DatasetSpec of(int members, int items, int orders, long seed) {
+        return new DatasetSpec(members, items, orders, 1, Math.min(3, items), 3, 1_000, 50_000, 1_000_000,
+                0.2, 0.8, 0.05, 0.5, 365, seed);
+    }
+
+    public DatasetSpec withAnchorDate(LocalDate anchorDate) {
+        return new DatasetSpec(members, items, orders, minLinesPerOrder, maxLinesPerOrder, maxCount, minPrice, maxPrice,
+                stockQuantity, hotItemRatio, hotLineShare, cancelRatio, deliveredRatio, days, seed, anchorDate, idBase);
+    }
+
+    public DatasetSpec withIdBase(long idBase) {
+        return new DatasetSpec(members, items, orders, minLinesPerOrder, maxLinesPerOrder, maxCount, minPrice, maxPrice,
+                stockQuantity, hotItemRatio, hotLineShare, cancelRatio, deliveredRatio, days, seed, anchorDate, idBase);
+    }
+
+    public long orderItemsUpperBound() {
+        return (long) orders * maxLinesPerOrder;
+    }
+
+    private static boolean ratio(double value) {
+        return value >= 0 && value <= 1;
+    }
+}
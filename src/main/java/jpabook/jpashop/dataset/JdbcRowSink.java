@@ -0,0 +1,48 @@
+package jpabook.jpashop.dataset;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+    batchSize 개씩 모아서 JdbcTemplate.batchUpdate (배치마다 auto commit 이라 긴 트랜잭션이 생기지 않음)
+    MySQL 은 rewriteBatchedStatements=true 를 URL 에 주면 multi-row insert 로 바뀌어 훨씬 빠름
+ */
+class JdbcRowSink implements RowSink {
+
+    private final JdbcTemplate jdbc;
+    private final String sql;
+    private final int batchSize;
+    private final List<Object[]> buffer;
+
+    JdbcRowSink(JdbcTemplate jdbc, int batchSize, String table, String... columns) {
+        this.jdbc = jdbc;
+        this.sql = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        this.batchSize = batchSize;
+        this.buffer = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void add(Object... values) {
+        buffer.add(values);
+        if (buffer.size() == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (!buffer.isEmpty()) {
+            jdbc.batchUpdate(sql, buffer);
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
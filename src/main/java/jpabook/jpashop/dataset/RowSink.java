@@ -0,0 +1,21 @@
+package jpabook.jpashop.dataset;
+
+import java.io.IOException;
+
+/*
+    테이블 하나에 row 를 순서대로 흘려보내는 출구 (JDBC batch insert 또는 CSV 파일)
+ */
+interface RowSink extends AutoCloseable {
+
+    void add(Object... values) throws IOException;
+
+    // 지금까지 받은 row 를 내보냄 (FK 가 걸린 테이블보다 먼저 써야 하는 경우)
+    void flush() throws IOException;
+
+    @Override
+    void close() throws IOException;
+
+    interface Factory {
+        RowSink open(String table, String... columns) throws IOException;
+    }
+}
@@ -3,28 +3,41 @@ package jpabook.jpashop.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jpabook.jpashop.config.SecondLevelCacheConfig;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.ArrayList;
 import java.util.List;
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.MEMBER_REGION)
+@Table(uniqueConstraints = @UniqueConstraint(name = Member.NAME_CONSTRAINT, columnNames = "name")) // 중복 가입 최종 방어선
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 public class Member {
 
+    public static final String NAME_CONSTRAINT = "uk_member_name"; // 위반 시 MemberService 가 중복 회원 예외로 변환
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq")
+    @SequenceGenerator(name = "member_seq", sequenceName = "member_seq", allocationSize = 50) // batch insert 가능 (JdbcBatchConfig)
     @Column(name = "member_id")
     private Long id;
 
     @NotBlank
     private String name;
 
+    @Version
+    private Long version;
+
     @Embedded
     private Address address;
 
     @JsonIgnore // 무한루프 방지
+    @OptimisticLock(excluded = true) // 주문이 추가될 때마다 회원 version이 올라가지 않도록
     @OneToMany(mappedBy = "member") //컬렉션은 필드에서 초기화하는게 안전
     private List<Order> orders = new ArrayList<>(); // null 문제에서 안전. 하이버네이트가 엔티티를 영속화할 때, 컬렉션을 감싸서 내장 컬렉션으로 변경하는 과정에서 문제 생길 위험 방지
 }
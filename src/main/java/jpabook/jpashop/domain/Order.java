@@ -10,11 +10,12 @@ import java.util.Arrays;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_order_date_id", columnList = "order_date, order_id")) // 커서 페이징용
 @Getter @Setter
 public class Order {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50) // batch insert 가능 (JdbcBatchConfig)
     @Column(name = "order_id")
     private Long id;
 
@@ -31,6 +32,9 @@ public class Order {
 
     private LocalDateTime orderDate;
 
+    @Version // 동시 수정(주문 취소 등) 충돌 감지
+    private Long version;
+
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
@@ -71,6 +75,9 @@ public class Order {
         if (delivery.getStatus() == DeliveryStatus.COMP) {
             throw new IllegalStateException("이미 배송완료된 상품은 취소가 불가능합니다.");
         }
+        if (status == OrderStatus.CANCEL) { // 재시도/중복 요청으로 재고가 두 번 복구되지 않도록
+            throw new IllegalStateException("이미 취소된 주문입니다.");
+        }
 
         this.setStatus(OrderStatus.CANCEL);
         orderItems.stream().forEach((item) -> item.cancel());
@@ -11,7 +11,8 @@ import lombok.Setter;
 @Table(name = "order_item")
 public class OrderItem {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50) // batch insert 가능 (JdbcBatchConfig)
     @Column(name = "order_item_id")
     private Long id;
 
@@ -38,6 +39,15 @@ public class OrderItem {
         return orderItem;
     }
 
+    // 재고는 이미 ItemRepository.reserveStock 으로 차감된 경우
+    public static OrderItem createReservedOrderItem(Item item, int orderPrice, int count) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setItem(item);
+        orderItem.setOrderPrice(orderPrice);
+        orderItem.setCount(count);
+        return orderItem;
+    }
+
     //== 비즈니스 로직==//
     public void cancel() {
         getItem().addStock(count);
@@ -0,0 +1,65 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+    주문 목록 조회 전용 테이블 (orders + member + delivery 를 미리 펼쳐서 저장한 읽기 모델)
+    조회 시 조인 없이 이 테이블 하나만 읽음. 주문/취소와 같은 트랜잭션에서 같이 갱신함
+    정합성이 깨졌을 때는 OrderSummaryRebuildService로 원본 테이블에서 다시 만듦
+ */
+@Entity
+@Table(name = "order_summary", indexes = @Index(name = "idx_order_summary_order_date", columnList = "order_date"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderSummary {
+
+    @Id // 주문 id를 그대로 사용
+    @Column(name = "order_id")
+    private Long orderId;
+
+    private String memberName;
+
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Embedded
+    private Address address;
+
+    public OrderSummary(Long orderId, String memberName, LocalDateTime orderDate, OrderStatus status, Address address) {
+        this.orderId = orderId;
+        this.memberName = memberName;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.address = address;
+    }
+
+    //== 생성 메서드 ==//
+    public static OrderSummary of(Order order) {
+        return new OrderSummary(
+                order.getId(),
+                order.getMember().getName(),
+                order.getOrderDate(),
+                order.getStatus(),
+                order.getDelivery().getAddress());
+    }
+
+    //== 비즈니스 로직 ==//
+    public void changeStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    // 재구성 시 원본 값으로 덮어씀
+    public void refresh(String memberName, LocalDateTime orderDate, OrderStatus status, Address address) {
+        this.memberName = memberName;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.address = address;
+    }
+}
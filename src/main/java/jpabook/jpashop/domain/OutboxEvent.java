@@ -0,0 +1,50 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+    주문 이벤트 outbox (주문/취소와 같은 트랜잭션에서 저장)
+    OutboxRelay 가 published_at 이 없는 이벤트를 읽어서 외부로 전달한 뒤 published_at 을 채움
+    event_id 는 pooled 시퀀스라 인스턴스끼리 커밋 순서와 다를 수 있음 -> 같은 주문 안의 순서는 order_seq(주문별 1, 2, ...)로 정함
+ */
+@Entity
+@Table(name = "order_outbox",
+        indexes = @Index(name = "idx_order_outbox_unpublished", columnList = "published_at, event_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_outbox_order_seq", columnNames = {"order_id", "order_seq"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent {
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    @Column(name = "event_id")
+    private Long id;
+
+    private Long orderId;
+
+    private int orderSeq; // 같은 주문 안에서의 이벤트 순번
+
+    @Enumerated(EnumType.STRING)
+    private OrderEventType eventType;
+
+    @Lob // 주문 상품이 많으면 JSON 이 varchar(255)를 넘음
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime publishedAt;
+
+    public OutboxEvent(Long orderId, int orderSeq, OrderEventType eventType, String payload) {
+        this.orderId = orderId;
+        this.orderSeq = orderSeq;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -1,16 +1,21 @@
 package jpabook.jpashop.domain.item;
 
 import jakarta.persistence.*;
+import jpabook.jpashop.config.SecondLevelCacheConfig;
 import jpabook.jpashop.domain.Category;
 import jpabook.jpashop.exception.NotEnoughStockException;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable // 2차 캐시 : 상속 구조(SINGLE_TABLE)의 루트에만 선언하면 Book, Album, Movie 가 같은 영역을 사용
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ITEM_REGION)
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "dtype")
 @Getter @Setter
@@ -24,6 +29,9 @@ public abstract class Item {
     private int price;
     private int stockQuantity;
 
+    @Version // 상품 수정, 주문 취소(재고 복구), 재고 차감 간의 충돌 감지
+    private Long version;
+
     @ManyToMany(mappedBy = "items")
     private List<Category> categories = new ArrayList<Category>();
 
@@ -40,7 +48,7 @@ public abstract class Item {
         stock 감소
      */
     public void removeStock(int quantity) {
-        int restStock =  this.stockQuantity -= quantity;
+        int restStock = this.stockQuantity - quantity; // 부족하면 값을 바꾸지 않고 예외
         if (restStock < 0) {
             throw new NotEnoughStockException("need more stock");
         }
@@ -0,0 +1,17 @@
+package jpabook.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 페이지 크기, 커서 등 클라이언트가 보낸 페이징 값이 잘못된 경우 (400)
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageRequestException extends RuntimeException{
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidPageRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
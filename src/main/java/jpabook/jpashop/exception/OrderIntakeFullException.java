@@ -0,0 +1,12 @@
+package jpabook.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class OrderIntakeFullException extends RuntimeException{
+
+    public OrderIntakeFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package jpabook.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class OrderIntakeUnavailableException extends RuntimeException{
+
+    public OrderIntakeUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package jpabook.jpashop.intake;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// /actuator/health 의 orderIntake : writer 가 죽어서 접수를 멈췄으면 DOWN
+@Component
+@RequiredArgsConstructor
+public class OrderIntakeHealthIndicator implements HealthIndicator {
+
+    private final OrderIntakeService orderIntakeService;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = orderIntakeService.isWriterAlive() ? Health.up() : Health.down();
+        return builder.withDetail("liveWriters", orderIntakeService.liveWriters()).build();
+    }
+}
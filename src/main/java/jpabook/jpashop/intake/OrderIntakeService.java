@@ -0,0 +1,267 @@
+package jpabook.jpashop.intake;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jpabook.jpashop.exception.OrderIntakeFullException;
+import jpabook.jpashop.exception.OrderIntakeUnavailableException;
+import jpabook.jpashop.service.OrderService;
+import jpabook.jpashop.service.OrderService.CartOrder;
+import jpabook.jpashop.service.OrderService.OrderLine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+    비동기 주문 접수 (write-behind)
+    요청 스레드는 입력만 확인하고 링 버퍼에 넣은 뒤 바로 티켓을 돌려줌
+    writer 스레드(jpashop.intake.writers)가 버퍼에서 batch-size 만큼 꺼내 OrderService.orderAll 로 한 트랜잭션에 저장
+    batch 중 하나라도 실패하면(재고 부족 등) 그 batch 는 한 건씩 다시 저장해서 실패한 주문만 FAILED 로 남김
+    writer 가 예상 못한 오류(Error 등)로 죽으면 로그를 남기고 접수를 멈춤 -> 이후 접수는 503, 대기 중이던 주문은 FAILED
+    writer 상태 : isWriterAlive(), 지표 jpashop.intake.writers.alive, /actuator/health 의 orderIntake
+
+    jpashop.intake.enabled      : false 면 접수 즉시 동기로 저장 (기존 동작과 같음)
+    jpashop.intake.capacity     : 버퍼 크기 (2의 거듭제곱)
+    jpashop.intake.backpressure : reject(가득 차면 바로 429) | block(block-timeout 까지 대기 후 429)
+    지표 : jpashop.intake.queue.depth, jpashop.intake.batch.size, jpashop.intake.commit.latency, jpashop.intake.rejected
+ */
+@Slf4j
+@Component
+public class OrderIntakeService implements SmartLifecycle {
+
+    enum Backpressure {
+        REJECT, BLOCK
+    }
+
+    private record OrderRequest(String ticketId, Long memberId, Long itemId, int count) {
+    }
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final OrderRingBuffer<OrderRequest> buffer;
+    private final int writers;
+    private final int batchSize;
+    private final Backpressure backpressure;
+    private final long blockTimeoutNanos;
+    private final Cache<String, OrderTicket> tickets;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer commitTimer;
+    private final MeterRegistry meterRegistry;
+
+    private final List<Thread> writerThreads = new ArrayList<>();
+    private final AtomicInteger liveWriters = new AtomicInteger();
+    private volatile boolean running;
+    private volatile boolean writerFailed;
+
+    public OrderIntakeService(OrderService orderService,
+                              MeterRegistry meterRegistry,
+                              @Value("${jpashop.intake.enabled:false}") boolean enabled,
+                              @Value("${jpashop.intake.capacity:8192}") int capacity,
+                              @Value("${jpashop.intake.writers:2}") int writers,
+                              @Value("${jpashop.intake.batch-size:100}") int batchSize,
+                              @Value("${jpashop.intake.backpressure:reject}") String backpressure,
+                              @Value("${jpashop.intake.block-timeout:1s}") Duration blockTimeout,
+                              @Value("${jpashop.intake.ticket-ttl:10m}") Duration ticketTtl) {
+        this.orderService = orderService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.buffer = new OrderRingBuffer<>(capacity);
+        this.writers = writers;
+        this.batchSize = batchSize;
+        this.backpressure = Backpressure.valueOf(backpressure.toUpperCase());
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(ticketTtl)
+                .build();
+
+        Gauge.builder("jpashop.intake.queue.depth", buffer, OrderRingBuffer::size)
+                .register(meterRegistry);
+        Gauge.builder("jpashop.intake.writers.alive", liveWriters, AtomicInteger::get)
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("jpashop.intake.batch.size")
+                .baseUnit("orders")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("jpashop.intake.commit.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public OrderTicket submit(Long memberId, Long itemId, int count) {
+        if (memberId == null || itemId == null || count <= 0) {
+            throw new IllegalArgumentException("회원, 상품, 1개 이상의 수량이 필요합니다.");
+        }
+        String ticketId = UUID.randomUUID().toString();
+        OrderTicket ticket = OrderTicket.queued(ticketId);
+
+        if (enabled && writerFailed) {
+            throw new OrderIntakeUnavailableException("주문 저장 writer 가 중단되어 접수할 수 없습니다.");
+        }
+        if (!enabled || !running) {
+            Long orderId = orderService.order(memberId, itemId, count);
+            return remember(ticket.completed(orderId));
+        }
+
+        remember(ticket);
+        if (!enqueue(new OrderRequest(ticketId, memberId, itemId, count))) {
+            tickets.invalidate(ticketId);
+            meterRegistry.counter("jpashop.intake.rejected", "backpressure", backpressure.name().toLowerCase()).increment();
+            throw new OrderIntakeFullException("주문 접수 대기열이 가득 찼습니다.");
+        }
+        return ticket;
+    }
+
+    public OrderTicket findTicket(String ticketId) {
+        return tickets.getIfPresent(ticketId);
+    }
+
+    // 비동기 접수를 쓰지 않으면 writer 도 없으므로 true
+    public boolean isWriterAlive() {
+        return !enabled || !writerFailed;
+    }
+
+    public int liveWriters() {
+        return liveWriters.get();
+    }
+
+    private boolean enqueue(OrderRequest request) {
+        if (buffer.offer(request)) {
+            return true;
+        }
+        if (backpressure == Backpressure.REJECT) {
+            return false;
+        }
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (buffer.offer(request)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private OrderTicket remember(OrderTicket ticket) {
+        tickets.put(ticket.ticketId(), ticket);
+        return ticket;
+    }
+
+    //== writer ==//
+    private void drainLoop() {
+        List<OrderRequest> batch = new ArrayList<>(batchSize);
+        try {
+            while (!writerFailed && (running || buffer.size() > 0)) {
+                OrderRequest request;
+                while (batch.size() < batchSize && (request = buffer.poll()) != null) {
+                    batch.add(request);
+                }
+                if (batch.isEmpty()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    continue;
+                }
+                persist(batch);
+                batch.clear();
+            }
+        } catch (Throwable e) {
+            // 그냥 죽으면 로그도 없이 버퍼만 차고 티켓은 계속 QUEUED 로 남음
+            log.error("order intake writer 중단 : {}", Thread.currentThread().getName(), e);
+            writerFailed = true;
+            batch.forEach(request -> fail(request, "주문 저장 중 오류가 발생했습니다."));
+        } finally {
+            if (liveWriters.decrementAndGet() == 0 && writerFailed) {
+                // 마지막 writer 가 나가면 남은 주문은 저장될 수 없으므로 FAILED 처리
+                OrderRequest request;
+                while ((request = buffer.poll()) != null) {
+                    fail(request, "주문 저장 writer 가 중단되었습니다.");
+                }
+            }
+        }
+    }
+
+    private void persist(List<OrderRequest> batch) {
+        batchSizeSummary.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            List<Long> orderIds = orderService.orderAll(batch.stream()
+                    .map(request -> new CartOrder(request.memberId(), List.of(new OrderLine(request.itemId(), request.count()))))
+                    .toList());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), orderIds.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.debug("batch 저장 실패, 한 건씩 다시 저장 : {}", e.getMessage());
+            for (OrderRequest request : batch) {
+                try {
+                    complete(request, orderService.order(request.memberId(), request.itemId(), request.count()));
+                } catch (RuntimeException single) {
+                    fail(request, single.getMessage());
+                }
+            }
+        } finally {
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void complete(OrderRequest request, Long orderId) {
+        tickets.asMap().computeIfPresent(request.ticketId(), (id, ticket) -> ticket.completed(orderId));
+    }
+
+    // QUEUED 일 때만 FAILED 로 (writer 가 죽기 전에 한 건씩 저장해서 이미 COMPLETED 된 주문을 실패로 덮어쓰면 재주문 -> 중복 주문)
+    private void fail(OrderRequest request, String message) {
+        tickets.asMap().computeIfPresent(request.ticketId(),
+                (id, ticket) -> ticket.status() == OrderTicket.Status.QUEUED ? ticket.failed(message) : ticket);
+    }
+
+    //== lifecycle ==//
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        liveWriters.set(writers);
+        for (int i = 0; i < writers; i++) {
+            Thread thread = new Thread(this::drainLoop, "order-intake-" + i);
+            thread.start();
+            writerThreads.add(thread);
+        }
+        log.info("order intake started : capacity={}, writers={}, batchSize={}, backpressure={}",
+                buffer.capacity(), writers, batchSize, backpressure);
+    }
+
+    // 새 접수는 막고 버퍼에 남은 주문은 모두 저장한 뒤 종료
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread thread : writerThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writerThreads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 웹 서버가 먼저 멈춰서 더 이상 접수가 들어오지 않은 뒤에 멈추도록 (phase 가 낮을수록 나중에 stop)
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,87 @@
+package jpabook.jpashop.intake;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+    고정 크기 lock-free 링 버퍼 (다중 생산자 / 다중 소비자)
+    칸마다 sequence 를 두고 CAS 로 자리를 선점하는 방식 (Dmitry Vyukov 의 bounded MPMC queue)
+    - sequence == pos     : 비어 있어서 pos 번째 생산자가 쓸 수 있음
+    - sequence == pos + 1 : 채워져 있어서 pos 번째 소비자가 읽을 수 있음
+    꽉 차면 offer 가 false, 비어 있으면 poll 이 null (대기는 호출하는 쪽에서 결정)
+ */
+final class OrderRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    OrderRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity는 2의 거듭제곱이어야 합니다. capacity=" + capacity);
+        }
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        long pos = producerIndex.get();
+        int index;
+        while (true) {
+            index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (producerIndex.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = producerIndex.get();
+            } else if (diff < 0) {
+                return false; // 한 바퀴 전 원소를 아직 아무도 안 읽음 -> 가득 참
+            } else {
+                pos = producerIndex.get(); // 다른 생산자가 먼저 가져감
+            }
+        }
+        elements.set(index, element);
+        sequences.set(index, pos + 1);
+        return true;
+    }
+
+    E poll() {
+        long pos = consumerIndex.get();
+        int index;
+        while (true) {
+            index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (consumerIndex.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = consumerIndex.get();
+            } else if (diff < 0) {
+                return null; // 비어 있음
+            } else {
+                pos = consumerIndex.get();
+            }
+        }
+        E element = elements.get(index);
+        elements.set(index, null);
+        sequences.set(index, pos + mask + 1); // 다음 바퀴의 생산자가 쓸 수 있도록
+        return element;
+    }
+
+    int size() {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(size, mask + 1L));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,23 @@
+package jpabook.jpashop.intake;
+
+/*
+    비동기 주문 접수 결과. 접수 즉시 QUEUED 로 돌려주고 저장이 끝나면 COMPLETED(orderId) 또는 FAILED(message)
+ */
+public record OrderTicket(String ticketId, Status status, Long orderId, String message) {
+
+    public enum Status {
+        QUEUED, COMPLETED, FAILED
+    }
+
+    static OrderTicket queued(String ticketId) {
+        return new OrderTicket(ticketId, Status.QUEUED, null, null);
+    }
+
+    OrderTicket completed(Long orderId) {
+        return new OrderTicket(ticketId, Status.COMPLETED, orderId, null);
+    }
+
+    OrderTicket failed(String message) {
+        return new OrderTicket(ticketId, Status.FAILED, null, message);
+    }
+}
@@ -0,0 +1,27 @@
+package jpabook.jpashop.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class SqlMonitoringConfig implements WebMvcConfigurer {
+
+    private final SqlStatementCountInterceptor sqlStatementCountInterceptor;
+
+    @Bean // static : EntityManagerFactory 생성 시점에 이 설정 클래스(인터셉터, MeterRegistry)까지 끌려 나오지 않도록
+    public static HibernatePropertiesCustomizer sqlStatementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatementCountInterceptor)
+                .excludePathPatterns("/css/**", "/js/**", "/actuator/**");
+    }
+}
@@ -0,0 +1,64 @@
+package jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/*
+    요청 1건 동안 실행된 SQL 수를 endpoint 별 히스토그램(jpashop.sql.statements)으로 남기고
+    같은 모양의 SQL이 repeat-threshold 번 넘게 반복되면 N+1 의심 로그를 남김
+    afterCompletion에서 닫으므로 뷰 렌더링 중 지연로딩(OSIV)까지 포함됨
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlStatementCountInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jpashop.sql.repeat-threshold:10}")
+    private int repeatThreshold;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementRecorder.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementStats stats = SqlStatementRecorder.stop();
+        String uri = endpointOf(request);
+
+        DistributionSummary.builder("jpashop.sql.statements")
+                .description("SQL statements executed per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getTotal());
+
+        Map<String, Integer> repeated = stats.repeatedShapes(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            repeated.forEach((shape, count) ->
+                    log.warn("N+1 의심 : {} {} 에서 같은 SQL {}번 실행 (전체 {}번) - {}",
+                            request.getMethod(), uri, count, stats.getTotal(), shape));
+        }
+    }
+
+    // 실제 경로(/orders/1/cancel)가 아니라 매핑 패턴(/orders/{orderId}/cancel)으로 묶어야 endpoint 별 집계가 됨
+    private String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package jpabook.jpashop.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// 하이버네이트가 PreparedStatement를 만들 때마다 호출됨 (쿼리, 지연로딩, 배치 insert 모두 포함). SQL은 바꾸지 않고 세기만 함
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementRecorder.onStatement(sql);
+        return sql;
+    }
+}
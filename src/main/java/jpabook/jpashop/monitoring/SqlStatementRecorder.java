@@ -0,0 +1,84 @@
+package jpabook.jpashop.monitoring;
+
+import java.util.function.Supplier;
+
+/*
+    현재 쓰레드에서 실행되는 SQL을 SqlStatementStats에 모음
+    HTTP 요청은 SqlStatementCountInterceptor가, 테스트는 record()로 범위를 열고 닫음
+    ReadOnlyQueryExecutor 처럼 다른 쓰레드로 넘기는 쿼리는 propagate()로 같은 범위에 모음
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    public static void start() {
+        CURRENT.set(new SqlStatementStats());
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static SqlStatementStats stop() {
+        SqlStatementStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats == null ? new SqlStatementStats() : stats;
+    }
+
+    public static SqlStatementStats record(Runnable runnable) {
+        return recordResult(() -> {
+            runnable.run();
+            return null;
+        }).stats();
+    }
+
+    // 바깥 범위(예: HTTP 요청)가 이미 열려 있어도 이 블록만 따로 세고 끝나면 바깥 범위로 되돌림
+    public static <T> Recorded<T> recordResult(Supplier<T> supplier) {
+        SqlStatementStats outer = CURRENT.get();
+        start();
+        try {
+            T result = supplier.get();
+            return new Recorded<>(result, CURRENT.get());
+        } finally {
+            CURRENT.remove();
+            if (outer != null) {
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    public record Recorded<T>(T result, SqlStatementStats stats) {
+    }
+
+    // 다른 쓰레드에서 실행할 작업에 현재 범위를 넘겨줌 (TaskDecorator 용). 작업 쓰레드의 SQL도 같은 SqlStatementStats에 쌓임
+    // 제출하는 쓰레드에서 호출해야 함. 범위가 없으면 그대로 반환
+    public static Runnable propagate(Runnable task) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatementStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    static void onStatement(String sql) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(sql);
+        }
+    }
+}
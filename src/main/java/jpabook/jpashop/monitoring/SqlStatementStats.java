@@ -0,0 +1,53 @@
+package jpabook.jpashop.monitoring;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/*
+    하나의 범위(HTTP 요청 1건, 테스트 블록 1개) 안에서 실행된 SQL 수를 "모양(shape)" 별로 집계
+    모양 : 바인딩 값/리터럴/IN 목록 길이만 다르고 나머지가 같은 SQL은 같은 쿼리로 봄 -> 같은 모양이 N번 반복되면 N+1 의심
+ */
+public class SqlStatementStats {
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Integer> countsByShape = new LinkedHashMap<>();
+    private int total;
+
+    // ReadOnlyQueryExecutor 작업 쓰레드들이 같은 범위에 동시에 기록할 수 있어서 synchronized
+    synchronized void record(String sql) {
+        total++;
+        countsByShape.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    public synchronized int getTotal() {
+        return total;
+    }
+
+    public synchronized Map<String, Integer> getCountsByShape() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(countsByShape));
+    }
+
+    // 같은 모양이 threshold 번 넘게 실행된 SQL
+    public synchronized Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        countsByShape.forEach((shape, count) -> {
+            if (count > threshold) {
+                repeated.put(shape, count);
+            }
+        });
+        return repeated;
+    }
+
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("in (...)");
+    }
+}
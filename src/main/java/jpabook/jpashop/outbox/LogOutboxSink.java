@@ -0,0 +1,45 @@
+package jpabook.jpashop.outbox;
+
+import jpabook.jpashop.domain.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/*
+    기본 sink : jpashop.outbox.file 이 있으면 그 파일에 한 줄씩 추가, 없으면 로그로 남김
+    한 줄 형식 : eventId \t orderId \t eventType \t payload
+ */
+@Slf4j
+public class LogOutboxSink implements OutboxSink {
+
+    private final Path file;
+
+    public LogOutboxSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxEvent> events) throws IOException {
+        if (file == null) {
+            events.forEach(event -> log.info("[outbox] {}", line(event)));
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : events) {
+                writer.write(line(event));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String line(OutboxEvent event) {
+        return event.getId() + "\t" + event.getOrderId() + "\t" + event.getEventType() + "\t" + event.getPayload();
+    }
+}
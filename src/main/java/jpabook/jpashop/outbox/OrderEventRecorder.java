@@ -0,0 +1,70 @@
+package jpabook.jpashop.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderEventType;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.OutboxEvent;
+import jpabook.jpashop.repository.outbox.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    주문 이벤트를 outbox 에 저장. 주문/취소 변경과 반드시 같은 트랜잭션이어야 하므로 MANDATORY
+    (주문은 커밋됐는데 이벤트는 없거나, 이벤트만 나가고 주문은 롤백되는 경우를 막음)
+    주문 생성 이벤트는 순번 1, 이후 이벤트는 그 주문의 마지막 순번 + 1 (동시에 같은 순번을 잡으면 유니크 제약으로 실패)
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+@RequiredArgsConstructor
+public class OrderEventRecorder {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public void placed(Order order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("memberId", order.getMember().getId());
+        payload.put("status", order.getStatus());
+        payload.put("orderDate", order.getOrderDate().toString());
+        payload.put("totalPrice", order.getTotalPrice());
+        payload.put("items", order.getOrderItems().stream()
+                .map(orderItem -> Map.of(
+                        "itemId", orderItem.getItem().getId(),
+                        "orderPrice", orderItem.getOrderPrice(),
+                        "count", orderItem.getCount()))
+                .toList());
+        outboxRepository.save(new OutboxEvent(order.getId(), 1, OrderEventType.ORDER_PLACED, toJson(payload)));
+    }
+
+    public void cancelled(Long orderId) {
+        cancelledAll(List.of(orderId));
+    }
+
+    public void cancelledAll(List<Long> orderIds) {
+        Map<Long, Integer> lastOrderSeqs = outboxRepository.findLastOrderSeqs(orderIds);
+        for (Long orderId : orderIds) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("orderId", orderId);
+            payload.put("status", OrderStatus.CANCEL);
+            int orderSeq = lastOrderSeqs.getOrDefault(orderId, 0) + 1;
+            outboxRepository.save(new OutboxEvent(orderId, orderSeq, OrderEventType.ORDER_CANCELLED, toJson(payload)));
+        }
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("outbox payload 변환 실패", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package jpabook.jpashop.outbox;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// OutboxSink 빈이 없으면 OutboxRelay 가 기본 LogOutboxSink 를 직접 만들어 사용
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+}
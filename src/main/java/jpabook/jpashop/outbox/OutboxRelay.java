@@ -0,0 +1,115 @@
+package jpabook.jpashop.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jpabook.jpashop.domain.OutboxEvent;
+import jpabook.jpashop.repository.outbox.OutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    outbox 이벤트를 주기적으로(poll-interval) batch-size 만큼 읽어 OutboxSink 로 넘기고, 성공한 batch 를 한 번에 published 로 표시
+    - at least once : sink 전달 후 표시 전에 죽으면 다음 poll 에서 같은 이벤트가 다시 나감
+    - 주문별 순서 : 같은 주문의 이벤트는 order_seq 순서로 나감 (앞 순번이 남아 있으면 뒤 순번은 기다림)
+      실패하면 그 batch 부터 다음 poll 에서 다시 시작 (뒤의 이벤트가 먼저 나가지 않음)
+    - 기본은 꺼져 있음. 인스턴스 하나(leader)에서만 jpashop.outbox.relay.enabled=true 로 켤 것
+      batch 는 for update skip locked 로 잡으므로 실수로 둘이 켜져도 같은 이벤트를 동시에 보내지는 않음
+      (단 이 경우 서로 다른 batch 에 나뉜 같은 주문의 이벤트끼리는 순서가 보장되지 않음)
+
+    지표 : jpashop.outbox.relayed (전달 건수), jpashop.outbox.batch.size, jpashop.outbox.failures
+          jpashop.outbox.lag (가장 오래된 미전달 이벤트의 대기 시간, 초), jpashop.outbox.delivery.delay (저장 ~ 전달 시간)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jpashop.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter relayed;
+    private final Counter failures;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer deliveryDelay;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       ObjectProvider<OutboxSink> outboxSinks,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${jpashop.outbox.batch-size:200}") int batchSize,
+                       @Value("${jpashop.outbox.max-batches-per-poll:10}") int maxBatchesPerPoll,
+                       @Value("${jpashop.outbox.file:}") String file) {
+        this.outboxRepository = outboxRepository;
+        this.outboxSink = outboxSinks.getIfAvailable(() -> new LogOutboxSink(StringUtils.hasText(file) ? Path.of(file) : null));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+
+        Gauge.builder("jpashop.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.relayed = meterRegistry.counter("jpashop.outbox.relayed");
+        this.failures = meterRegistry.counter("jpashop.outbox.failures");
+        this.batchSizeSummary = DistributionSummary.builder("jpashop.outbox.batch.size")
+                .register(meterRegistry);
+        this.deliveryDelay = Timer.builder("jpashop.outbox.delivery.delay")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${jpashop.outbox.poll-interval:1000}")
+    public void poll() {
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            int delivered = relayBatch();
+            if (delivered < batchSize) {
+                break; // 밀린 이벤트 없음 (또는 전달 실패)
+            }
+        }
+        LocalDateTime oldest = transactionTemplate.execute(status -> outboxRepository.findOldestUnpublishedCreatedAt());
+        lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+    }
+
+    // 한 batch 를 전달하고 표시까지 한 트랜잭션에서. 전달한 건수 (실패하면 0)
+    public int relayBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxRepository.findUnpublished(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            try {
+                outboxSink.deliver(events);
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("outbox 전달 실패, 다음 poll 에서 재시도 (eventId {}~)", events.get(0).getId(), e);
+                return 0;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            outboxRepository.markPublished(events.stream().map(OutboxEvent::getId).toList(), now);
+            events.forEach(event -> deliveryDelay.record(Duration.between(event.getCreatedAt(), now)));
+            batchSizeSummary.record(events.size());
+            relayed.increment(events.size());
+            return events.size();
+        });
+        return delivered == null ? 0 : delivered;
+    }
+}
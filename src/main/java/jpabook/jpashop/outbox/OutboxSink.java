@@ -0,0 +1,15 @@
+package jpabook.jpashop.outbox;
+
+import jpabook.jpashop.domain.OutboxEvent;
+
+import java.util.List;
+
+/*
+    outbox 이벤트를 받아갈 곳 (메시지 브로커, 웹훅 등)
+    빈으로 등록하면 기본 LogOutboxSink 대신 사용됨 (여러 개면 @Primary 로 하나를 지정)
+    예외 없이 리턴하면 전달 완료로 보고 표시함. 같은 이벤트가 다시 올 수 있으므로(at least once) eventId 로 중복 처리할 것
+ */
+public interface OutboxSink {
+
+    void deliver(List<OutboxEvent> events) throws Exception;
+}
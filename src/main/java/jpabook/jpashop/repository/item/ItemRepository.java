@@ -1,16 +1,30 @@
 package jpabook.jpashop.repository.item;
 
+import jakarta.persistence.Cache;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.repository.support.InClauseChunks;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.query.NativeQuery;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
 public class ItemRepository {
 
+    // native UPDATE 의 동기화 query space. item 테이블이 아니므로 하이버네이트가 Item 캐시 영역 전체를 비우지 않음
+    private static final String STOCK_QUERY_SPACE = "item_stock";
+
     private final EntityManager em;
 
     public void save(Item item) {
@@ -30,6 +44,81 @@ public class ItemRepository {
         return em.find(Item.class, id);
     }
 
+    /*
+        재고 차감 (조건부 UPDATE 한 번)
+        엔티티를 읽고 removeStock 후 변경감지로 UPDATE 하면 동시 주문끼리 같은 재고를 읽어서 차감이 유실되거나 초과 판매됨
+        -> DB에서 stock >= count 인 경우에만 차감하고, 바뀐 row가 없으면 재고 부족
+        HQL 벌크 UPDATE 는 하이버네이트가 Item 2차 캐시 영역 전체를 비우므로 native 로 실행
+        - 동기화 query space 를 STOCK_QUERY_SPACE(매핑된 테이블이 아님)로 지정 -> 영역 전체 무효화 없음
+        - 대신 바뀐 상품 한 건의 캐시만 지금과 커밋 후에 지움 (커밋 전에 다른 트랜잭션이 이전 값을 다시 올렸을 수 있으므로)
+        - 벌크 연산은 영속성 컨텍스트를 거치지 않으므로 이미 올라와 있는 Item은 refresh 해서 DB 값과 맞춤
+     */
+    public void reserveStock(Long itemId, int count) {
+        int updated = em.createNativeQuery(
+                        "update item set stock_quantity = stock_quantity - :count, version = version + 1" +
+                                " where item_id = :id and stock_quantity >= :count")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .setParameter("count", count)
+                .setParameter("id", itemId)
+                .executeUpdate();
+        if (updated == 0) {
+            throw new NotEnoughStockException("need more stock");
+        }
+        evictAfterCompletion(List.of(itemId));
+
+        Item item = em.getReference(Item.class, itemId);
+        if (Hibernate.isInitialized(item)) {
+            em.refresh(item);
+        }
+    }
+
+    /*
+        주문 일괄 취소 시 상품별로 합산한 수량만큼 재고 복구 : 상품당 UPDATE 1번 (엔티티를 읽지 않음)
+        reserveStock 과 같은 native UPDATE 라 Item 캐시 영역 전체가 아니라 복구한 상품들의 캐시만 지움
+        상품 id 순서로 넘겨야 동시 취소끼리 교착 상태가 생기지 않음 (TreeMap 등)
+     */
+    public void restoreStockAll(Map<Long, Long> counts) {
+        for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+            em.createNativeQuery("update item set stock_quantity = stock_quantity + :count, version = version + 1 where item_id = :id")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                    .setParameter("count", entry.getValue())
+                    .setParameter("id", entry.getKey())
+                    .executeUpdate();
+        }
+        evictAfterCompletion(counts.keySet());
+    }
+
+    private void evictAfterCompletion(Collection<Long> itemIds) {
+        Cache cache = em.getEntityManagerFactory().getCache();
+        List<Long> ids = List.copyOf(itemIds);
+        ids.forEach(id -> cache.evict(Item.class, id));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ids.forEach(id -> cache.evict(Item.class, id));
+            }
+        });
+    }
+
+    /*
+        일괄 주문용 : 상품들을 IN 쿼리 한 번(500개 단위)으로 select ... for update (상품 id 순서로 잠가서 교착 상태 방지)
+        차감은 호출한 쪽에서 엔티티로 하고 UPDATE 는 flush 때 JDBC batch 로 나감 (바뀐 상품의 캐시만 커밋 시 갱신)
+        같은 영속성 컨텍스트에 이미 올라와 있던 상품은 잠그기만 하고 다시 읽지 않으므로 트랜잭션 처음에 호출할 것
+     */
+    public Map<Long, Item> lockAllById(Collection<Long> ids) {
+        Map<Long, Item> items = new HashMap<>();
+        for (List<Long> chunk : InClauseChunks.partition(ids.stream().sorted().toList(), 500)) {
+            em.createQuery("select i from Item i where i.id in :ids order by i.id", Item.class)
+                    .setParameter("ids", chunk)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList()
+                    .forEach(item -> items.put(item.getId(), item));
+        }
+        return items;
+    }
+
     public List<Item> findAll() {
         return em.createQuery("select i from Item i", Item.class)
                 .getResultList();
@@ -0,0 +1,88 @@
+package jpabook.jpashop.repository.member;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+    가입된 회원 이름의 Bloom filter (메모리)
+    mightContain == false : 확실히 없는 이름 -> 중복 확인 쿼리 없이 바로 insert
+    mightContain == true  : 있을 수도 있음(오탐 가능) -> 쿼리로 한 번 더 확인
+    최종 중복 방지는 member.name 유니크 인덱스가 담당하므로 필터가 틀려도 중복 회원이 생기지는 않음
+
+    jpashop.member.bloom.enabled (기본 false), expected-insertions, fpp(오탐률)
+ */
+@Component
+public class MemberNameBloomFilter {
+
+    private final boolean enabled;
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    public MemberNameBloomFilter(@Value("${jpashop.member.bloom.enabled:false}") boolean enabled,
+                                 @Value("${jpashop.member.bloom.expected-insertions:1000000}") long expectedInsertions,
+                                 @Value("${jpashop.member.bloom.fpp:0.01}") double fpp) {
+        this.enabled = enabled;
+        long size = enabled ? optimalBitSize(expectedInsertions, fpp) : 64;
+        this.bits = new AtomicLongArray((int) ((size + 63) / 64));
+        this.bitSize = bits.length() * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void put(String name) {
+        long hash = hash64(name);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = indexOf(h1 + i * h2);
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String name) {
+        long hash = hash64(name);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = indexOf(h1 + i * h2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long indexOf(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitSize;
+    }
+
+    static long optimalBitSize(long expectedInsertions, double fpp) {
+        return (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+    }
+
+    // FNV-1a 64bit + 마무리 섞기(murmur3 fmix64)
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -2,10 +2,16 @@ package jpabook.jpashop.repository.member;
 
 import jakarta.persistence.EntityManager;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.support.InClauseChunks;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
@@ -17,6 +23,17 @@ public class MemberRepository {
         em.persist(member);
     }
 
+    // 유니크 인덱스 위반을 이 자리에서 확인하도록 바로 flush (DataIntegrityViolationException 으로 변환되어 던져짐)
+    public void saveAndFlush(Member member) {
+        em.persist(member);
+        em.flush();
+    }
+
+    // 변경감지로 바뀐 내용을 바로 반영 (유니크 인덱스 위반은 DataIntegrityViolationException 으로 변환되어 던져짐)
+    public void flush() {
+        em.flush();
+    }
+
     public Member findOne(Long id) {
         return em.find(Member.class, id);
     }
@@ -26,6 +43,33 @@ public class MemberRepository {
                 .getResultList();
     }
 
+    // 장바구니/일괄 주문에서 회원을 한 번에 조회
+    public Map<Long, Member> findAllById(Collection<Long> ids) {
+        Map<Long, Member> members = new HashMap<>();
+        for (List<Long> chunk : InClauseChunks.partition(List.copyOf(ids), 500)) {
+            em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                    .setParameter("ids", chunk)
+                    .getResultList()
+                    .forEach(member -> members.put(member.getId(), member));
+        }
+        return members;
+    }
+
+    public boolean existsByName(String name) {
+        return !em.createQuery("select m.id from Member m where m.name = :name", Long.class)
+                .setParameter("name", name)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    public Stream<String> streamAllNames() {
+        return em.createQuery("select m.name from Member m", String.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
     public List<Member> findByName(String name) {
         return em.createQuery("select m from Member m where m.name = :name", Member.class)
                 .setParameter("name", name)
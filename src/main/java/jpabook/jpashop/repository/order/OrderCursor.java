@@ -0,0 +1,49 @@
+package jpabook.jpashop.repository.order;
+
+import jpabook.jpashop.domain.Order;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/*
+    커서(keyset) 페이징용 위치 정보 (마지막으로 읽은 주문의 orderDate + order_id)
+    클라이언트에는 내부 구조를 드러내지 않도록 base64 문자열(opaque token)로만 전달
+ */
+@Getter
+public class OrderCursor {
+
+    private static final String DELIMITER = "_";
+
+    private final LocalDateTime orderDate;
+    private final Long orderId;
+
+    public OrderCursor(LocalDateTime orderDate, Long orderId) {
+        this.orderDate = orderDate;
+        this.orderId = orderId;
+    }
+
+    public static OrderCursor from(Order order) {
+        return new OrderCursor(order.getOrderDate(), order.getId());
+    }
+
+    public String encode() {
+        String raw = orderDate + DELIMITER + orderId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(DELIMITER);
+            return new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, index)),
+                    Long.valueOf(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.", e);
+        }
+    }
+}
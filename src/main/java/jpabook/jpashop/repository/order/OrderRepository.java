@@ -1,12 +1,12 @@
 package jpabook.jpashop.repository.order;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
+import jakarta.persistence.LockModeType;
 import jpabook.jpashop.api.dto.OrderSimpleQueryDto;
 import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
-import org.springframework.util.StringUtils;
 
 import java.util.List;
 
@@ -15,6 +15,7 @@ import java.util.List;
 public class OrderRepository {
 
     private final EntityManager em;
+    private final OrderSearchQueryFactory orderSearchQueryFactory;
 
     public void save(Order order) {
         em.persist(order);
@@ -39,45 +40,54 @@ public class OrderRepository {
                 .getResultList();
     }
 
-    // 이 쿼리는 복붙으로 가져옴... 차라리 MyBatis 쿼리가 나은듯
+    // 기존 호출부(/api/v1|v2/orders) 호환용 : 정렬 없이 최대 1000건 (예전 결과 순서 그대로)
     public List<Order> findAllByString(OrderSearch orderSearch) {
+        return orderSearchQueryFactory.select(em, orderSearch)
+                .setMaxResults(1000)
+                .getResultList();
+    }
 
-        String jpql = "select o from Order o join o.member m";
-        boolean isFirstCondition = true;
-
-        //주문 상태 검색
-        if (orderSearch.getOrderStatus() != null) {
-            if (isFirstCondition) {
-                jpql += " where";
-                isFirstCondition = false;
-            } else {
-                jpql += " and";
-            }
-            jpql += " o.status = :status";
-        }
+    // 동적 조건 (OrderSearchQueryFactory). 최신 주문부터 offset, limit 페이징
+    public List<Order> findAll(OrderSearch orderSearch, int offset, int limit) {
+        return orderSearchQueryFactory.selectNewestFirst(em, orderSearch)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
 
-        //회원 이름 검색
-        if (StringUtils.hasText(orderSearch.getMemberName())) {
-            if (isFirstCondition) {
-                jpql += " where";
-                isFirstCondition = false;
-            } else {
-                jpql += " and";
-            }
-            jpql += " m.name like :name";
-        }
+    public long count(OrderSearch orderSearch) {
+        return orderSearchQueryFactory.count(em, orderSearch)
+                .getSingleResult();
+    }
 
-        TypedQuery<Order> query = em.createQuery(jpql, Order.class)
-                .setMaxResults(1000);
+    /*
+        일괄 취소용 : 취소 가능한 주문 id 를 배송 상태와 함께 조회하면서 행 잠금(select ... for update)
+        잠근 뒤에는 다른 트랜잭션이 상태를 바꿀 수 없으므로 이후 벌크 UPDATE 대상과 결과 건수가 일치함
+     */
+    public List<Object[]> lockOpenOrders(OrderSearch orderSearch) {
+        return orderSearchQueryFactory.openOrders(em, orderSearch)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
 
-        if (orderSearch.getOrderStatus() != null) {
-            query = query.setParameter("status", orderSearch.getOrderStatus());
-        }
-        if (StringUtils.hasText(orderSearch.getMemberName())) {
-            query = query.setParameter("name", orderSearch.getMemberName());
-        }
+    // 주문 id 별이 아니라 상품별로 합산한 취소 수량 [itemId, sum(count)]
+    public List<Object[]> sumItemCounts(List<Long> orderIds) {
+        return em.createQuery(
+                        "select oi.item.id, sum(oi.count) from OrderItem oi" +
+                                " where oi.order.id in :orderIds" +
+                                " group by oi.item.id", Object[].class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
 
-        return query.getResultList();
+    public int cancelAll(List<Long> orderIds) {
+        return em.createQuery(
+                        "update versioned Order o set o.status = :cancel" +
+                                " where o.id in :orderIds and o.status = :order")
+                .setParameter("cancel", OrderStatus.CANCEL)
+                .setParameter("order", OrderStatus.ORDER)
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
     }
 
     public List<Order> findAllWithMemberDelivery() {
@@ -88,6 +98,14 @@ public class OrderRepository {
                         ).getResultList();
     }
 
+    /*
+        쿼리자체는 fetch조인에 비해 적게나가지만 성능상 이점이 그렇게 크지 않음
+        (조인문에 들어가는 테이블 개수가 영향을 주며, select절에 컬럼 몇 개 차이는 성능에 영향 미비).
+        fit하게 데이터를 가져온만큼 유연성이 떨어짐.
+        API 스펙에 맞춘코드가 Repository까지 들어가는 단점 -> 물리적으로는 계층이 나눠져 있지만 논리적으로는 계층이 결합된 상태
+        (API 스펙이 "변경"되면 Repository의 코드도 같이 "변경"되는 상황 발생)
+        *** 조회전용으로 화면와 깊게 연관되어 있고 복잡한 쿼리가 필요한 경우(ex 통계) 전용 repository를 따로 만들어서 놓는 것이 좋음
+     */
     // 재사용성 떨어짐. 성능최적화지만 미비한수준. repository가 view에 의존하는것과 마찬가지. api 스펙바뀌면 같이 바뀜. dto에 의존하게 하지말고 entity 수준에서 해결하자
     public List<OrderSimpleQueryDto> findOrderDtos() {
         return em.createQuery( // new OrderSimpleQueryDto() 파라미터로 order 전달하면 orderId가 전달되어서 따로 써줘야함. d.address는 값타입이라 제대로 인식가능
@@ -134,4 +152,30 @@ public class OrderRepository {
                 .setMaxResults(limit)
                 .getResultList();
     }
+
+    // 커서(keyset) 페이징 : offset 만큼 읽고 버리는 대신 (order_date, order_id) 인덱스를 타고 마지막 위치 바로 다음부터 읽음
+    // 깊은 페이지로 가도 offset 스캔 비용이 없음. after가 null이면 첫 페이지
+    public List<Order> findAllWithMemberDelivery(OrderCursor after, int limit) {
+        if (after == null) {
+            return em.createQuery(
+                            "select o from Order o" +
+                                    " join fetch o.member m" +
+                                    " join fetch o.delivery d" +
+                                    " order by o.orderDate, o.id", Order.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        // (orderDate, id) > (:orderDate, :orderId) 를 인덱스 범위 조건(orderDate >= :orderDate)이 앞에 오도록 풀어씀
+        return em.createQuery(
+                        "select o from Order o" +
+                                " join fetch o.member m" +
+                                " join fetch o.delivery d" +
+                                " where o.orderDate >= :orderDate" +
+                                " and (o.orderDate > :orderDate or o.id > :orderId)" +
+                                " order by o.orderDate, o.id", Order.class)
+                .setParameter("orderDate", after.getOrderDate())
+                .setParameter("orderId", after.getOrderId())
+                .setMaxResults(limit)
+                .getResultList();
+    }
 }
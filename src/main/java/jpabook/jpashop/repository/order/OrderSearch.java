@@ -3,10 +3,22 @@ package jpabook.jpashop.repository.order;
 import jpabook.jpashop.domain.OrderStatus;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
 
 @Getter @Setter
 public class OrderSearch {
 
     private String memberName; // 회원 이름
     private OrderStatus orderStatus; // 주문 상태 [ORDER, CANCEL]
+
+    private Long memberId; // 회원 id
+    private Long orderId; // 주문 id
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime orderDateFrom; // 주문일시 시작 (포함)
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime orderDateTo; // 주문일시 끝 (미포함)
 }
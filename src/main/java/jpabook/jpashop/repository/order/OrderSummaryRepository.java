@@ -0,0 +1,104 @@
+package jpabook.jpashop.repository.order;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jpabook.jpashop.api.dto.OrderSimpleQueryDto;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.OrderSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderSummaryRepository {
+
+    private final EntityManager em;
+
+    public void save(OrderSummary orderSummary) {
+        em.persist(orderSummary);
+    }
+
+    public OrderSummary findOne(Long orderId) {
+        return em.find(OrderSummary.class, orderId);
+    }
+
+    // 주문 상태가 바뀔 때 호출. 요약 row가 아직 없으면(재구성 전에 만들어진 주문) 새로 만듦
+    public void syncStatus(Order order) {
+        OrderSummary orderSummary = findOne(order.getId());
+        if (orderSummary == null) {
+            save(OrderSummary.of(order));
+        } else {
+            orderSummary.changeStatus(order.getStatus());
+        }
+    }
+
+    // 조인 없이 order_summary 한 테이블만 PK 순서로 읽음
+    public List<OrderSimpleQueryDto> findAllDtos() {
+        return em.createQuery(
+                        "select new jpabook.jpashop.api.dto.OrderSimpleQueryDto(s.orderId, s.memberName, s.orderDate, s.status, s.address)" +
+                                " from OrderSummary s" +
+                                " order by s.orderId", OrderSimpleQueryDto.class)
+                .getResultList();
+    }
+
+    public int changeStatusAll(List<Long> orderIds, OrderStatus status) {
+        return em.createQuery("update OrderSummary s set s.status = :status where s.orderId in :orderIds")
+                .setParameter("status", status)
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+    }
+
+    // 재구성 배치 구간의 기존 요약 row를 잠그면서(select ... for update) 한 번에 영속성 컨텍스트로 올림
+    public List<OrderSummary> lockRange(Long afterOrderId, Long toOrderId) {
+        return em.createQuery(
+                        "select s from OrderSummary s" +
+                                " where s.orderId > :afterOrderId and s.orderId <= :toOrderId", OrderSummary.class)
+                .setParameter("afterOrderId", afterOrderId)
+                .setParameter("toOrderId", toOrderId)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    // 구간에서 요약 row가 없는 주문만 원본으로 채움. 이미 있으면(동시에 주문 트랜잭션이 넣은 경우 포함) 건너뜀
+    public int insertMissing(Long afterOrderId, Long toOrderId) {
+        return em.createQuery("insert into OrderSummary (orderId, memberName, orderDate, status, address.city, address.street, address.zipcode)" +
+                        " select o.id, m.name, o.orderDate, o.status, d.address.city, d.address.street, d.address.zipcode" +
+                        " from Order o" +
+                        " join o.member m" +
+                        " join o.delivery d" +
+                        " where o.id > :afterOrderId and o.id <= :toOrderId" +
+                        " on conflict(orderId) do nothing")
+                .setParameter("afterOrderId", afterOrderId)
+                .setParameter("toOrderId", toOrderId)
+                .executeUpdate();
+    }
+
+    /*
+        원본 주문이 없는 요약 row만 지움 (toOrderId 가 null 이면 afterOrderId 이후 전부)
+        범위로 통째로 지우면 재구성 도중 커밋된 주문의 요약 row까지 지워지므로 not exists 로 원본 존재 여부를 확인
+     */
+    public int deleteOrphans(Long afterOrderId, Long toOrderId) {
+        Query query = em.createQuery("delete from OrderSummary s" +
+                        " where s.orderId > :afterOrderId" +
+                        (toOrderId == null ? "" : " and s.orderId <= :toOrderId") +
+                        " and not exists (select o.id from Order o where o.id = s.orderId)")
+                .setParameter("afterOrderId", afterOrderId);
+        if (toOrderId != null) {
+            query.setParameter("toOrderId", toOrderId);
+        }
+        return query.executeUpdate();
+    }
+
+    // 회원 이름이 바뀌면 그 회원의 주문 요약 row 이름도 같은 트랜잭션에서 바꿈
+    public int changeMemberName(Long memberId, String memberName) {
+        return em.createQuery("update OrderSummary s set s.memberName = :memberName" +
+                        " where s.orderId in (select o.id from Order o where o.member.id = :memberId)")
+                .setParameter("memberName", memberName)
+                .setParameter("memberId", memberId)
+                .executeUpdate();
+    }
+}
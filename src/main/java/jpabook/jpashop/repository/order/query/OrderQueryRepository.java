@@ -1,12 +1,20 @@
 package jpabook.jpashop.repository.order.query;
 
 import jakarta.persistence.EntityManager;
+import jpabook.jpashop.repository.support.InClauseChunks;
+import jpabook.jpashop.repository.support.ReadOnlyQueryExecutor;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 
@@ -15,6 +23,13 @@ import static java.util.stream.Collectors.toList;
 public class OrderQueryRepository {
 
     private final EntityManager em;
+    private final ReadOnlyQueryExecutor readOnlyQueryExecutor;
+
+    @Value("${jpashop.query.in-chunk-size:500}")
+    private int inChunkSize;
+
+    @Value("${jpashop.query.in-parallel:false}")
+    private boolean inParallel;
 
     public List<OrderQueryDto> findOrderQueryDtos() {
         List<OrderQueryDto> result = findOrders();
@@ -32,21 +47,91 @@ public class OrderQueryRepository {
                 .map(OrderQueryDto::getOrderId)
                 .toList();
 
-        List<OrderItemQueryDto> orderItems = em.createQuery(
+        Map<Long, List<OrderItemQueryDto>> orderItemMap = findOrderItemMap(orderIds);
+
+        result.forEach(orderQueryDto -> orderQueryDto.setOrderItems(
+                orderItemMap.getOrDefault(orderQueryDto.getOrderId(), new ArrayList<>())));
+
+        return result;
+    }
+
+    /*
+        v5의 동시 실행 버전 : 주문 조회와 주문상품 조회가 서로의 결과를 기다리지 않도록 주문상품을 id 목록이 아닌 id 범위로 조회
+        두 쿼리가 각자 트랜잭션(커넥션)에서 동시에 실행되므로 응답 시간이 두 쿼리 시간의 합이 아니라 더 긴 쪽에 가까워짐
+        - 먼저 max(주문 id)를 잡고 두 쿼리 모두 그 이하로 제한 (주문상품 쿼리가 주문 쿼리에 없는 주문까지 읽지 않도록)
+        - 두 쿼리는 스냅샷이 달라서 그 사이 커밋/삭제된 주문은 한쪽에만 있을 수 있음 -> 주문상품이 없으면 빈 목록
+     */
+    public List<OrderQueryDto> findAllByDto_concurrent() {
+        Long maxOrderId = em.createQuery("select max(o.id) from Order o", Long.class)
+                .getSingleResult();
+        if (maxOrderId == null) {
+            return new ArrayList<>();
+        }
+        return readOnlyQueryExecutor.invokeBoth(
+                () -> findOrdersUpTo(maxOrderId),
+                () -> findOrderItemsUpTo(maxOrderId),
+                (result, orderItems) -> {
+                    Map<Long, List<OrderItemQueryDto>> orderItemMap = orderItems.stream()
+                            .collect(Collectors.groupingBy(OrderItemQueryDto::getOrderId));
+                    result.forEach(orderQueryDto -> orderQueryDto.setOrderItems(
+                            orderItemMap.getOrDefault(orderQueryDto.getOrderId(), new ArrayList<>())));
+                    return result;
+                });
+    }
+
+    private List<OrderQueryDto> findOrdersUpTo(Long maxOrderId) {
+        return em.createQuery(
+                        "select new jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address) " +
+                                " from Order o" +
+                                " join o.member m" +
+                                " join o.delivery d" +
+                                " where o.id <= :maxOrderId", OrderQueryDto.class)
+                .setParameter("maxOrderId", maxOrderId)
+                .getResultList();
+    }
+
+    private List<OrderItemQueryDto> findOrderItemsUpTo(Long maxOrderId) {
+        return em.createQuery(
                         "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id ,i.name, oi.orderPrice, oi.count)" +
                                 " from OrderItem oi" +
-                                " join oi.item i " +
-                                " where oi.order.id in :orderIds", OrderItemQueryDto.class)
-                .setParameter("orderIds", orderIds)
+                                " join oi.item i" +
+                                " where oi.order.id <= :maxOrderId", OrderItemQueryDto.class)
+                .setParameter("maxOrderId", maxOrderId)
                 .getResultList();
+    }
+
+    /*
+        주문 id 전체를 IN 절 하나에 넣지 않고 inChunkSize 단위로 잘라서 조회 (InClauseChunks 참고)
+        inParallel이면 chunk들을 별도 쓰레드/트랜잭션(커넥션)에서 동시에 조회한 뒤 합침
+     */
+    private Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
+        List<List<Long>> chunks = InClauseChunks.partition(orderIds, inChunkSize);
+
+        List<List<OrderItemQueryDto>> chunkResults;
+        if (inParallel && chunks.size() > 1) {
+            chunkResults = readOnlyQueryExecutor.invokeAll(chunks.stream()
+                    .<Supplier<List<OrderItemQueryDto>>>map(chunk -> () -> findOrderItemsIn(chunk))
+                    .toList());
+        } else {
+            chunkResults = chunks.stream()
+                    .map(this::findOrderItemsIn)
+                    .toList();
+        }
 
         // stream 중에서도 이 방식은 생소함. 익숙해질것 (Collectors.groupingBy)
-        Map<Long, List<OrderItemQueryDto>> orderItemMap = orderItems.stream()
+        return chunkResults.stream()
+                .flatMap(List::stream)
                 .collect(Collectors.groupingBy(OrderItemQueryDto::getOrderId));
+    }
 
-        result.forEach(orderQueryDto -> orderQueryDto.setOrderItems(orderItemMap.get(orderQueryDto.getOrderId())));
-
-        return result;
+    private List<OrderItemQueryDto> findOrderItemsIn(List<Long> orderIds) {
+        return em.createQuery(
+                        "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id ,i.name, oi.orderPrice, oi.count)" +
+                                " from OrderItem oi" +
+                                " join oi.item i " +
+                                " where oi.order.id in :orderIds", OrderItemQueryDto.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
     }
 
     // oi.order.id로 표기했지만 실제 테이블에선 oi.order에서 order_id 찾을 수 있으므로 order 참조하지않고 id값 가져올 수 있음
@@ -71,17 +156,79 @@ public class OrderQueryRepository {
     }
 
     public List<OrderFlatDto> findAllByDto_flat() {
-        return em.createQuery(
-                "select new " +
-                        " jpabook.jpashop.repository.order.query.OrderFlatDto(" +
-                            "o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)" +
-                        " from Order o" +
-                        " join o.member m" +
-                        " join o.delivery d" +
-                        " join o.orderItems oi" +
-                        " join oi.item i", OrderFlatDto.class)
+        return em.createQuery(FLAT_QUERY, OrderFlatDto.class)
                 .getResultList();
 
 
     }
+
+    /*
+        getResultList()는 전체 row를 List 하나에 담아서 주문 수만큼 힙 사용량이 늘어남
+        getResultStream()은 forward-only 커서로 fetchSize 만큼씩 DB에서 가져오므로 소비하는 쪽이 한 row씩 흘려보내면 메모리 사용량이 일정함
+        반드시 트랜잭션 안에서 소비하고 close 해야 함 (try-with-resources)
+        MySQL은 url에 useCursorFetch=true 를 줘야 fetchSize가 적용됨 (없으면 드라이버가 결과 전체를 메모리에 올림)
+     */
+    public Stream<OrderFlatDto> streamAllByDto_flat(int fetchSize) {
+        return em.createQuery(FLAT_QUERY, OrderFlatDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /*
+        v7 : flat 조인을 o.id 순으로 1번만 조회하고, 같은 주문의 연속된 row를 OrderQueryDto 하나로 접음
+        v5처럼 쿼리 2번 + groupingBy Map이 필요 없고, v6처럼 중복 row를 그대로 내보내지도 않음
+        페이징은 row가 아니라 주문 단위 (afterOrderId 다음 주문부터 limit개)
+        - 페이지 범위를 같은 SQL 안에서 정함 : 주문 id limit개를 뽑는 파생 테이블(from 절 서브쿼리)과 조인
+          (MySQL은 IN 서브쿼리 안의 LIMIT을 지원하지 않아서 파생 테이블로 조인)
+        - 결과는 List로 모으지 않고 stream으로 흘려보내면서 접음 (row가 아니라 접힌 주문만 힙에 남음)
+     */
+    public List<OrderQueryDto> findAllByDto_grouped(Long afterOrderId, int limit) {
+        List<OrderQueryDto> result = new ArrayList<>(limit);
+        try (Stream<OrderFlatDto> rows = em.createQuery(GROUPED_PAGE_QUERY, OrderFlatDto.class)
+                .setParameter("afterOrderId", afterOrderId == null ? 0L : afterOrderId) // id는 1부터
+                .setParameter("limit", limit)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            OrderQueryDto current = null;
+            for (Iterator<OrderFlatDto> it = rows.iterator(); it.hasNext(); ) {
+                OrderFlatDto row = it.next();
+                if (current == null || !current.getOrderId().equals(row.getOrderId())) {
+                    current = new OrderQueryDto(row.getOrderId(), row.getName(), row.getOrderDate(), row.getOrderStatus(), row.getAddress());
+                    current.setOrderItems(new ArrayList<>());
+                    result.add(current);
+                }
+                current.getOrderItems().add(
+                        new OrderItemQueryDto(row.getOrderId(), row.getItemName(), row.getOrderPrice(), row.getCount()));
+            }
+        }
+        return result;
+    }
+
+    private static final String FLAT_QUERY =
+            "select new " +
+                    " jpabook.jpashop.repository.order.query.OrderFlatDto(" +
+                        "o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)" +
+                    " from Order o" +
+                    " join o.member m" +
+                    " join o.delivery d" +
+                    " join o.orderItems oi" +
+                    " join oi.item i";
+
+    // 주문상품이 있는 주문만 id 순으로 limit개 (flat 조인이 inner join 이므로 주문상품 없는 주문은 페이지에서 빼야 limit개가 채워짐)
+    private static final String GROUPED_PAGE_QUERY =
+            "select new " +
+                    " jpabook.jpashop.repository.order.query.OrderFlatDto(" +
+                        "o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)" +
+                    " from Order o" +
+                    " join (select o2.id as id from Order o2" +
+                        " where o2.id > :afterOrderId" +
+                        " and exists (select oi2.id from OrderItem oi2 where oi2.order = o2)" +
+                        " order by o2.id" +
+                        " limit :limit) page on page.id = o.id" +
+                    " join o.member m" +
+                    " join o.delivery d" +
+                    " join o.orderItems oi" +
+                    " join oi.item i" +
+                    " order by o.id";
 }
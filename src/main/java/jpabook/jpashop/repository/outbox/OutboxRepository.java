@@ -0,0 +1,66 @@
+package jpabook.jpashop.repository.outbox;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jpabook.jpashop.domain.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.LockOptions;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private final EntityManager em;
+
+    public void save(OutboxEvent event) {
+        em.persist(event);
+    }
+
+    /*
+        아직 전달 안 된 이벤트를 id 순서대로 잠그고 가져옴 (for update skip locked : 다른 relay 가 잡은 row는 건너뜀)
+        id 는 pooled 시퀀스라 같은 주문의 앞 순번 이벤트가 더 큰 id 를 받을 수 있음
+        -> 앞 순번(order_seq)이 더 뒤(id)에 남아 있는 이벤트는 이번에 빼고, 앞 순번이 전달된 다음 poll 에서 가져감
+     */
+    public List<OutboxEvent> findUnpublished(int limit) {
+        return em.createQuery(
+                        "select e from OutboxEvent e" +
+                                " where e.publishedAt is null" +
+                                " and not exists (select p.id from OutboxEvent p" +
+                                "   where p.orderId = e.orderId and p.publishedAt is null" +
+                                "   and p.orderSeq < e.orderSeq and p.id > e.id)" +
+                                " order by e.id", OutboxEvent.class)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("jakarta.persistence.lock.timeout", LockOptions.SKIP_LOCKED)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // 주문별 마지막 이벤트 순번 (이벤트가 없는 주문은 빠짐)
+    public Map<Long, Integer> findLastOrderSeqs(List<Long> orderIds) {
+        return em.createQuery(
+                        "select e.orderId, max(e.orderSeq) from OutboxEvent e" +
+                                " where e.orderId in :orderIds" +
+                                " group by e.orderId", Object[].class)
+                .setParameter("orderIds", orderIds)
+                .getResultList().stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Integer) row[1]));
+    }
+
+    public LocalDateTime findOldestUnpublishedCreatedAt() {
+        return em.createQuery("select min(e.createdAt) from OutboxEvent e where e.publishedAt is null", LocalDateTime.class)
+                .getSingleResult();
+    }
+
+    public int markPublished(List<Long> eventIds, LocalDateTime publishedAt) {
+        return em.createQuery("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :eventIds")
+                .setParameter("publishedAt", publishedAt)
+                .setParameter("eventIds", eventIds)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,51 @@
+package jpabook.jpashop.repository.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    IN 절에 id를 한꺼번에 다 넣으면 SQL이 거대해지고, id 개수가 매번 달라서 PreparedStatement/실행계획 캐시를 못 씀
+    -> chunkSize 단위로 자르고, 각 chunk를 정해진 몇 가지 크기(bucket)로 패딩해서 SQL 모양이 몇 개로 고정되도록 함
+    패딩은 마지막 id를 반복 (IN 절이라 중복 id는 결과에 영향 없음)
+ */
+public final class InClauseChunks {
+
+    private static final int[] BUCKETS = {8, 32, 128};
+
+    private InClauseChunks() {
+    }
+
+    public static <T> List<List<T>> partition(List<T> ids, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize는 0보다 커야 합니다.");
+        }
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<T> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            chunks.add(pad(chunk, bucketOf(chunk.size(), chunkSize)));
+        }
+        return chunks;
+    }
+
+    static int bucketOf(int size, int chunkSize) {
+        for (int bucket : BUCKETS) {
+            if (bucket >= chunkSize) {
+                break;
+            }
+            if (size <= bucket) {
+                return bucket;
+            }
+        }
+        return chunkSize;
+    }
+
+    private static <T> List<T> pad(List<T> chunk, int bucket) {
+        List<T> padded = new ArrayList<>(bucket);
+        padded.addAll(chunk);
+        T last = chunk.get(chunk.size() - 1);
+        while (padded.size() < bucket) {
+            padded.add(last);
+        }
+        return padded;
+    }
+}
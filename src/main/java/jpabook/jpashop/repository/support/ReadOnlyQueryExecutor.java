@@ -0,0 +1,105 @@
+package jpabook.jpashop.repository.support;
+
+import jpabook.jpashop.monitoring.SqlStatementRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/*
+    서로 독립적인 조회 쿼리를 별도 쓰레드에서 동시에 실행
+    각 작업은 자기 쓰레드의 읽기 전용 트랜잭션 안에서 돌기 때문에 주입받은 EntityManager(프록시)가 작업마다 다른 영속성 컨텍스트/커넥션을 씀
+    동시에 도는 작업 수는 maxConcurrency로 제한. 그만큼 커넥션을 더 쓰므로 커넥션 풀 크기보다 작게 잡을 것 (요청 쓰레드도 OSIV로 커넥션 1개를 잡고 있음)
+    런타임이 가상 쓰레드를 지원하면(Java 21+) 작업마다 가상 쓰레드를 쓰고, 아니면 고정 크기 쓰레드 풀을 씀
+    작업은 TaskDecorator(SqlStatementRecorder::propagate)로 감싸서 제출 -> 작업 쓰레드의 SQL도 요청/테스트의 SQL 수에 포함됨
+ */
+@Slf4j
+@Component
+public class ReadOnlyQueryExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final TaskDecorator taskDecorator = SqlStatementRecorder::propagate;
+    private final Semaphore permits;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ReadOnlyQueryExecutor(PlatformTransactionManager transactionManager,
+                                 @Value("${jpashop.query.executor-threads:4}") int maxConcurrency,
+                                 @Value("${jpashop.query.virtual-threads:true}") boolean virtualThreads) {
+        this.executor = newExecutor(maxConcurrency, virtualThreads);
+        this.permits = new Semaphore(maxConcurrency);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public <T> List<T> invokeAll(List<Supplier<T>> queries) {
+        List<CompletableFuture<T>> futures = queries.stream()
+                .map(this::submit)
+                .toList();
+        return futures.stream()
+                .map(ReadOnlyQueryExecutor::join)
+                .toList();
+    }
+
+    // 두 쿼리를 동시에 실행하고 둘 다 끝나면 결과를 합침 (ex. 주문 + 주문상품, content + count)
+    public <A, B, R> R invokeBoth(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combiner) {
+        CompletableFuture<A> firstFuture = submit(first);
+        CompletableFuture<B> secondFuture = submit(second);
+        return combiner.apply(join(firstFuture), join(secondFuture));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return readOnlyTransaction.execute(status -> query.get());
+            } finally {
+                permits.release();
+            }
+        }, task -> executor.execute(taskDecorator.decorate(task))); // execute는 제출한 쓰레드에서 호출됨
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ExecutorService newExecutor(int maxConcurrency, boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                // 컴파일 타겟이 17이라 리플렉션으로 찾음
+                ExecutorService executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+                log.info("read-only query executor : virtual threads");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                log.info("virtual threads not supported, read-only query executor : {} platform threads", maxConcurrency);
+            }
+        }
+        return Executors.newFixedThreadPool(maxConcurrency, new CustomizableThreadFactory("read-only-query-"));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,74 @@
+package jpabook.jpashop.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+    시퀀스(MySQL 은 하이버네이트가 만든 *_seq 테이블)를 테이블의 max(id) 뒤로 옮김
+    - IDENTITY 로 쌓인 기존 데이터가 있는 DB 에 시퀀스 테이블이 새로 생기면 next_val 이 1부터 시작해서 id 가 충돌함
+    - JPA 를 거치지 않고 id 를 직접 넣은 경우(DatasetGenerator)도 같음
+    pooled 최적화기는 시퀀스 값을 구간의 끝으로 쓰므로 max(id) + allocationSize 보다 작을 때만 앞으로 옮김 (뒤로는 안 옮김)
+    시퀀스가 없으면(IDENTITY 매핑으로 실행한 경우 등) 건너뜀
+ */
+@Slf4j
+@Component
+public class SequenceAligner {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    // 시퀀스, 테이블, id 컬럼
+    private static final List<String[]> SEQUENCES = List.of(
+            new String[]{"member_seq", "member", "member_id"},
+            new String[]{"item_seq", "item", "item_id"},
+            new String[]{"delivery_seq", "delivery", "delivery_id"},
+            new String[]{"orders_seq", "orders", "order_id"},
+            new String[]{"order_item_seq", "order_item", "order_item_id"},
+            new String[]{"order_outbox_seq", "order_outbox", "event_id"});
+
+    private final JdbcTemplate jdbc;
+
+    public SequenceAligner(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void alignAll() {
+        boolean mySql = isMySql();
+        for (String[] sequence : SEQUENCES) {
+            align(sequence[0], sequence[1], sequence[2], mySql);
+        }
+    }
+
+    private void align(String sequence, String table, String idColumn, boolean mySql) {
+        Long current;
+        try {
+            current = mySql
+                    ? jdbc.queryForObject("select next_val from " + sequence, Long.class)
+                    : jdbc.queryForObject("select base_value from information_schema.sequences where sequence_name = ?",
+                    Long.class, sequence.toUpperCase());
+        } catch (DataAccessException e) {
+            log.debug("sequence {} 없음, 건너뜀", sequence);
+            return;
+        }
+        Long maxId = jdbc.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        if (maxId == null || current == null || current > maxId + ALLOCATION_SIZE) {
+            return;
+        }
+        long next = maxId + ALLOCATION_SIZE + 1;
+        if (mySql) {
+            jdbc.update("update " + sequence + " set next_val = ?", next);
+        } else {
+            jdbc.execute("alter sequence " + sequence + " restart with " + next);
+        }
+        log.info("sequence {} : {} -> {} ({} max id {})", sequence, current, next, table, maxId);
+    }
+
+    private boolean isMySql() {
+        return Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql")));
+    }
+}
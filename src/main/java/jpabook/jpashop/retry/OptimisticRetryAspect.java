@@ -0,0 +1,73 @@
+package jpabook.jpashop.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    @RetryOnConflict 메서드에서 낙관적 락 충돌(OptimisticLockingFailureException)이 나면 다시 실행
+    - 트랜잭션 advisor(LOWEST_PRECEDENCE)보다 바깥에서 동작해야 시도마다 트랜잭션이 새로 시작됨 (충돌은 보통 커밋 시점 flush에서 발생)
+    - 이미 바깥 트랜잭션 안에서 호출되면 재시도해도 같은 영속성 컨텍스트라 의미가 없으므로 바로 던짐
+    - 대기 시간은 backoff * 2^(시도-1) 범위 안에서 랜덤 (full jitter, 동시에 충돌한 요청끼리 다시 부딪히지 않도록)
+
+    지표 : jpashop.retry.conflicts{method} 충돌 수, jpashop.retry.retries{method} 재시도 수, jpashop.retry.exhausted{method} 재시도 후에도 실패
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultMaxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticRetryAspect(MeterRegistry meterRegistry,
+                                 @Value("${jpashop.retry.max-attempts:3}") int defaultMaxAttempts,
+                                 @Value("${jpashop.retry.backoff-millis:20}") long backoffMillis) {
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxAttempts = defaultMaxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        int maxAttempts = retryOnConflict.maxAttempts() > 0 ? retryOnConflict.maxAttempts() : defaultMaxAttempts;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                counter("jpashop.retry.conflicts", method).increment();
+                if (attempt >= maxAttempts) {
+                    counter("jpashop.retry.exhausted", method).increment();
+                    log.warn("[{}] 낙관적 락 충돌, 재시도 {}회 후 실패", method, attempt - 1);
+                    throw e;
+                }
+                counter("jpashop.retry.retries", method).increment();
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * (1L << (attempt - 1)) + 1));
+            }
+        }
+    }
+
+    private Counter counter(String name, String method) {
+        return Counter.builder(name)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,18 @@
+package jpabook.jpashop.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+    낙관적 락 충돌(@Version) 시 트랜잭션을 새로 시작해서 다시 실행 (OptimisticRetryAspect)
+    재시도할 때 메서드 전체가 다시 실행되므로 같은 입력으로 여러 번 실행되어도 결과가 같은 메서드에만 붙일 것
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    // 0 이하면 jpashop.retry.max-attempts 사용
+    int maxAttempts() default 0;
+}
@@ -2,6 +2,7 @@ package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.item.Item;
 import jpabook.jpashop.repository.item.ItemRepository;
+import jpabook.jpashop.retry.RetryOnConflict;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,11 +22,13 @@ public class ItemService {
     }
 
     @Transactional
+    @RetryOnConflict
     public void updateItem(Long itemId, String name, int price, int stockQuantity) { //param: 파라미터로 넘어온 준영속 상태의 엔티티
         Item findItem = itemRepository.findOne(itemId); // 트랜잭션 안에서 엔티티를 다시 조회
         findItem.setName(name);
         findItem.setPrice(price);
         findItem.setStockQuantity(stockQuantity); // 트랜잭션 커밋 시점에 변경감지(Dirty Checking)이 동작해서 DB에 UPDATE SQL 실행
+        // 2차 캐시(READ_WRITE)의 Item 항목도 커밋 시점에 같이 무효화/갱신되므로 따로 evict 할 필요 없음
         // setter로 하지 말고 findItem.change(~param) 형태로 만들어서 entity 내부에서 책임지도록해야 유지보수 용이함.
     }
 
@@ -2,12 +2,21 @@ package jpabook.jpashop.service;
 
 import jpabook.jpashop.api.dto.UpdateMemberRequest;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.member.MemberNameBloomFilter;
 import jpabook.jpashop.repository.member.MemberRepository;
+import jpabook.jpashop.repository.order.OrderSummaryRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
@@ -15,6 +24,8 @@ import java.util.List;
 public class MemberService {
 
     private final MemberRepository memberRepository;
+    private final MemberNameBloomFilter memberNameBloomFilter;
+    private final OrderSummaryRepository orderSummaryRepository;
 
     //회원 가입
     @Transactional
@@ -37,6 +48,54 @@ public class MemberService {
         }
     }
 
+    /*
+        회원 가입 (중복 확인 쿼리 없이 member.name 유니크 인덱스에 맡김)
+        join 은 가입마다 이름 조회 쿼리를 먼저 날리고, 동시에 같은 이름으로 가입하면 둘 다 통과할 수 있었음
+        - Bloom filter 가 켜져 있으면 "있을 수도 있는" 이름만 조회로 확인, 확실히 없는 이름은 바로 insert
+        - uk_member_name 위반만 join 과 같은 IllegalStateException 으로 변환, 다른 제약 위반은 그대로 던짐
+     */
+    @Transactional
+    public Long signup(Member member) {
+        if (memberNameBloomFilter.isEnabled()
+                && memberNameBloomFilter.mightContain(member.getName())
+                && memberRepository.existsByName(member.getName())) {
+            throw new IllegalStateException("이미 존재하는 회원입니다.");
+        }
+        try {
+            memberRepository.saveAndFlush(member);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateName(e);
+        }
+        memberNameBloomFilter.put(member.getName());
+        return member.getId();
+    }
+
+    // 회원 이름 유니크 인덱스(uk_member_name) 위반이면 중복 회원 예외로, 아니면(다른 제약, not null 등) 원래 예외 그대로
+    // DB 마다 제약 이름 앞뒤에 스키마, 인덱스 접미사 등이 붙으므로 포함 여부로 비교
+    private static RuntimeException translateDuplicateName(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraintName = violation.getConstraintName();
+                if (constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(Member.NAME_CONSTRAINT)) {
+                    return new IllegalStateException("이미 존재하는 회원입니다.", e);
+                }
+                break;
+            }
+        }
+        return e;
+    }
+
+    // 애플리케이션 시작 시 기존 회원 이름으로 Bloom filter 채움
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpNameFilter() {
+        if (!memberNameBloomFilter.isEnabled()) {
+            return;
+        }
+        try (Stream<String> names = memberRepository.streamAllNames()) {
+            names.forEach(memberNameBloomFilter::put);
+        }
+    }
+
     //회원 전체 조회
     public List<Member> findMembers() {
         return memberRepository.findAll();
@@ -46,10 +105,24 @@ public class MemberService {
         return memberRepository.findOne(memberId);
     }
 
+    // 이름을 바꾸는 경우도 signup 과 같이 중복 확인 + 유니크 인덱스 위반은 IllegalStateException 으로 변환
     @Transactional
     public void update(Long id, UpdateMemberRequest updateMemberRequest) {
         Member member = memberRepository.findOne(id); // 트랜잭션 안에서 영속성 컨텍스트인 member 객체 얻음
+        if (Objects.equals(updateMemberRequest.getName(), member.getName())) {
+            return;
+        }
+        if (memberRepository.existsByName(updateMemberRequest.getName())) {
+            throw new IllegalStateException("이미 존재하는 회원입니다.");
+        }
         member.setName(updateMemberRequest.getName());  // 변경감지 적용
+        try {
+            memberRepository.flush(); // 동시에 같은 이름으로 바꾼 경우 커밋 시점이 아니라 여기서 유니크 인덱스 위반 확인
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateName(e);
+        }
+        orderSummaryRepository.changeMemberName(id, updateMemberRequest.getName()); // 주문 요약의 회원 이름도 같은 트랜잭션에서 갱신
+        memberNameBloomFilter.put(updateMemberRequest.getName());
         /*
             새로 find한 member라서 영속성컨텍스트의 1차캐시에 없을 것이고 DB에서 새로 가져오면서 1차 캐시에 저장 후 member 반환해줌
             member.setName()을 하면 1차 캐시의 스냅샷과 다른 결과 생김
@@ -0,0 +1,87 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.outbox.OrderEventRecorder;
+import jpabook.jpashop.repository.item.ItemRepository;
+import jpabook.jpashop.repository.order.OrderRepository;
+import jpabook.jpashop.repository.order.OrderSearch;
+import jpabook.jpashop.repository.order.OrderSummaryRepository;
+import jpabook.jpashop.repository.support.InClauseChunks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+    주문 일괄 취소 (회원별, 기간별 등 OrderSearch 의 memberId, orderId, orderDateFrom/To 조건)
+    Order.cancel() 은 주문마다 주문, 주문상품, 상품, 배송을 모두 읽고 상품 재고를 하나씩 올렸음
+    -> 엔티티를 읽지 않고 집합 단위로 처리
+       1. 취소 가능한 주문 id 를 배송 상태와 함께 잠금 조회 (배송 완료(COMP)는 건너뜀)
+       2. 주문상품 수량을 상품별로 합산 -> 상품당 UPDATE 1번 (상품 id 순서로 잠가서 교착 상태 방지, 상품 엔티티는 읽지 않음)
+       3. 주문 상태, order_summary 상태를 IN 절 UPDATE 로 변경
+       4. 취소된 주문마다 outbox 이벤트 저장 (insert 는 JDBC batch)
+    벌크 연산은 영속성 컨텍스트를 거치지 않으므로 마지막에 (outbox insert 를 flush 한 뒤) 비움
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class OrderBulkCancelService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final ItemRepository itemRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderEventRecorder orderEventRecorder;
+    private final EntityManager em;
+
+    public BulkCancelResult cancelAll(OrderSearch orderSearch) {
+        if (orderSearch.getMemberId() == null && orderSearch.getOrderId() == null
+                && orderSearch.getOrderDateFrom() == null && orderSearch.getOrderDateTo() == null) {
+            throw new IllegalArgumentException("회원, 주문 또는 기간 조건이 하나 이상 필요합니다.");
+        }
+        em.flush();
+
+        List<Long> cancellable = new ArrayList<>();
+        int skipped = 0;
+        for (Object[] row : orderRepository.lockOpenOrders(orderSearch)) {
+            if (row[1] == DeliveryStatus.COMP) {
+                skipped++;
+            } else {
+                cancellable.add((Long) row[0]);
+            }
+        }
+        if (cancellable.isEmpty()) {
+            return new BulkCancelResult(0, skipped);
+        }
+
+        List<List<Long>> chunks = InClauseChunks.partition(cancellable, CHUNK_SIZE);
+        Map<Long, Long> restoreCounts = new TreeMap<>();
+        for (List<Long> chunk : chunks) {
+            for (Object[] row : orderRepository.sumItemCounts(chunk)) {
+                restoreCounts.merge((Long) row[0], ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
+        itemRepository.restoreStockAll(restoreCounts); // 상품 id 순서 (TreeMap)
+
+        int cancelled = 0;
+        for (List<Long> chunk : chunks) {
+            cancelled += orderRepository.cancelAll(chunk);
+            orderSummaryRepository.changeStatusAll(chunk, OrderStatus.CANCEL);
+        }
+        orderEventRecorder.cancelledAll(cancellable);
+
+        em.flush();
+        em.clear();
+        return new BulkCancelResult(cancelled, skipped);
+    }
+
+    public record BulkCancelResult(int cancelled, int skipped) {
+    }
+}
@@ -0,0 +1,72 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.repository.order.query.OrderFlatDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+    주문 flat row를 NDJSON(한 줄에 JSON 하나)으로 내보냄
+    row를 읽는 즉시 응답에 쓰고 버리기 때문에 주문이 1만건이든 1000만건이든 힙 사용량이 일정함
+    jpashop.export.clear-interval : 몇 row 마다 영속성 컨텍스트를 비우고 응답을 flush 할지 (0 이면 끝날 때만 flush, 음수는 시작 시 실패)
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true) // 스트림은 트랜잭션(커넥션)이 살아있는 동안만 읽을 수 있음
+public class OrderExportService {
+
+    private static final byte NEW_LINE = '\n';
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int clearInterval;
+
+    public OrderExportService(OrderQueryRepository orderQueryRepository,
+                              EntityManager em,
+                              ObjectMapper objectMapper,
+                              @Value("${jpashop.export.fetch-size:500}") int fetchSize,
+                              @Value("${jpashop.export.clear-interval:1000}") int clearInterval) {
+        if (clearInterval < 0) {
+            throw new IllegalArgumentException("jpashop.export.clear-interval은 0(비우지 않음) 이상이어야 합니다 : " + clearInterval);
+        }
+        this.orderQueryRepository = orderQueryRepository;
+        this.em = em;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.clearInterval = clearInterval;
+    }
+
+    public long exportFlat(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(OrderFlatDto.class);
+        long count = 0;
+
+        try (Stream<OrderFlatDto> rows = orderQueryRepository.streamAllByDto_flat(fetchSize)) {
+            Iterator<OrderFlatDto> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                out.write(writer.writeValueAsBytes(iterator.next()));
+                out.write(NEW_LINE);
+
+                count++;
+                if (clearInterval > 0 && count % clearInterval == 0) {
+                    em.clear(); // 영속성 컨텍스트에 쌓이는게 없도록 주기적으로 비움
+                    out.flush(); // 버퍼에 모인 row를 클라이언트로 바로 밀어냄
+                }
+            }
+        }
+        out.flush();
+        log.info("order flat export rows : {}", count);
+        return count;
+    }
+}
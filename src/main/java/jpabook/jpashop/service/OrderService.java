@@ -4,16 +4,25 @@ import jpabook.jpashop.domain.Delivery;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderSummary;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.outbox.OrderEventRecorder;
 import jpabook.jpashop.repository.item.ItemRepository;
 import jpabook.jpashop.repository.member.MemberRepository;
 import jpabook.jpashop.repository.order.OrderRepository;
 import jpabook.jpashop.repository.order.OrderSearch;
+import jpabook.jpashop.repository.order.OrderSummaryRepository;
+import jpabook.jpashop.retry.RetryOnConflict;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Service
 @Transactional(readOnly = true)
@@ -23,12 +32,18 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderEventRecorder orderEventRecorder;
     /*
         주문
      */
     @Transactional
+    @RetryOnConflict
     public Long order(Long memberId, Long itemId, int count) {
 
+        //재고 차감 (조건부 UPDATE 한 번, 부족하면 NotEnoughStockException)
+        itemRepository.reserveStock(itemId, count);
+
         //엔티티 조회
         Member member = memberRepository.findOne(memberId);
         Item item = itemRepository.findOne(itemId);
@@ -38,25 +53,101 @@ public class OrderService {
         delivery.setAddress(member.getAddress());
 
         //주문상품 생성
-        OrderItem orderItem = OrderItem.createOrderItem(item, item.getPrice(), count);
+        OrderItem orderItem = OrderItem.createReservedOrderItem(item, item.getPrice(), count);
 
         //주문 생성
         Order order = Order.createOrder(member, delivery, orderItem);
 
         //주문 저장
         orderRepository.save(order);
+        orderSummaryRepository.save(OrderSummary.of(order)); // 조회용 요약 테이블도 같은 트랜잭션에서 저장
+        orderEventRecorder.placed(order);
         return order.getId();
     }
 
+    /*
+        장바구니 주문 : 주문 1건에 주문상품 여러 건
+     */
+    @Transactional
+    @RetryOnConflict
+    public Long orderCart(Long memberId, List<OrderLine> lines) {
+        return orderAll(List.of(new CartOrder(memberId, lines))).get(0);
+    }
+
+    /*
+        일괄 주문 : 주문 여러 건을 한 트랜잭션에서 처리
+        - 회원은 IN 쿼리 한 번, 상품은 IN 쿼리 한 번으로 잠금 조회 (select ... for update, 상품 id 순서라 교착 상태 없음)
+        - 상품별 필요 수량을 먼저 합산해서 잠근 엔티티에서 차감 (하나라도 부족하면 전체 롤백)
+          차감 UPDATE 는 flush 때 JDBC batch 로 한 번에 나감
+     */
+    @Transactional
+    @RetryOnConflict
+    public List<Long> orderAll(List<CartOrder> cartOrders) {
+        Set<Long> memberIds = new HashSet<>();
+        Map<Long, Integer> requiredStock = new TreeMap<>();
+        for (CartOrder cartOrder : cartOrders) {
+            if (cartOrder.lines().isEmpty()) {
+                throw new IllegalArgumentException("주문상품이 없습니다.");
+            }
+            memberIds.add(cartOrder.memberId());
+            for (OrderLine line : cartOrder.lines()) {
+                requiredStock.merge(line.itemId(), line.count(), Integer::sum);
+            }
+        }
+
+        Map<Long, Member> members = memberRepository.findAllById(memberIds);
+        Map<Long, Item> items = itemRepository.lockAllById(requiredStock.keySet());
+        requiredStock.forEach((itemId, count) -> {
+            Item item = items.get(itemId);
+            if (item == null) {
+                throw new IllegalArgumentException("존재하지 않는 상품입니다. id=" + itemId);
+            }
+            item.removeStock(count);
+        });
+
+        List<Long> orderIds = new ArrayList<>(cartOrders.size());
+        for (CartOrder cartOrder : cartOrders) {
+            Member member = members.get(cartOrder.memberId());
+            if (member == null) {
+                throw new IllegalArgumentException("존재하지 않는 회원입니다. id=" + cartOrder.memberId());
+            }
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+
+            OrderItem[] orderItems = cartOrder.lines().stream()
+                    .map(line -> {
+                        Item item = items.get(line.itemId());
+                        return OrderItem.createReservedOrderItem(item, item.getPrice(), line.count());
+                    })
+                    .toArray(OrderItem[]::new);
+
+            Order order = Order.createOrder(member, delivery, orderItems);
+            orderRepository.save(order);
+            orderSummaryRepository.save(OrderSummary.of(order));
+            orderEventRecorder.placed(order);
+            orderIds.add(order.getId());
+        }
+        return orderIds;
+    }
+
+    public record OrderLine(Long itemId, int count) {
+    }
+
+    public record CartOrder(Long memberId, List<OrderLine> lines) {
+    }
+
     /*
         주문 취소
      */
     @Transactional
+    @RetryOnConflict
     public void cancelOrder(Long orderId) {
         //주문 엔티티 조회
         Order order = orderRepository.findOne(orderId);
         //주문 취소
         order.cancel();
+        orderSummaryRepository.syncStatus(order);
+        orderEventRecorder.cancelled(orderId);
     }
 
     //검색
@@ -64,4 +155,16 @@ public class OrderService {
         return orderRepository.findAllByString(orderSearch);
     }
 
+    public List<Order> findOrders(OrderSearch orderSearch, int page, int size) {
+        long offset = (long) page * size; // page * size 가 int 범위를 넘으면 음수 offset 이 되던 문제
+        if (offset > Integer.MAX_VALUE) {
+            return List.of(); // 그렇게 뒤쪽 페이지에는 결과가 없음
+        }
+        return orderRepository.findAll(orderSearch, (int) offset, size);
+    }
+
+    public long countOrders(OrderSearch orderSearch) {
+        return orderRepository.count(orderSearch);
+    }
+
 }
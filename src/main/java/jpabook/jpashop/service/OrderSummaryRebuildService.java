@@ -0,0 +1,108 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.api.dto.OrderSimpleQueryDto;
+import jpabook.jpashop.domain.OrderSummary;
+import jpabook.jpashop.repository.order.OrderSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+    order_summary 를 원본 테이블(orders, member, delivery)로부터 다시 채움
+    주문 id 순으로 batchSize 만큼씩 끊어서 배치마다 별도 트랜잭션으로 처리 (긴 트랜잭션 하나로 테이블 전체를 잡지 않도록)
+    배치 범위의 요약 row를 원본 값으로 덮어쓰거나 새로 넣으므로 몇 번을 돌려도 결과가 같음
+    - 범위를 통째로 지우지 않음. 재구성 도중 커밋된 주문의 요약 row는 주문 트랜잭션이 이미 넣어 둔 것이라 지우면 안 됨
+    - 원본에서 사라진 주문의 요약 row만 not exists 로 골라서 지움
+    - 배치 트랜잭션은 요약 row 범위를 먼저 잠그고(select ... for update) 그 다음에 원본을 읽음
+      원본을 먼저 읽으면 그 사이 커밋된 주문 취소(주문, 요약 둘 다 CANCEL)를 읽어 둔 이전 값(ORDER)으로 덮어씀
+      잠근 뒤에 읽으면 취소가 먼저 커밋됐으면 취소된 값을 읽고, 아직이면 취소가 요약 row 잠금을 기다렸다가 나중에 덮어씀
+    - 요약 row가 없는 주문은 insert ... on conflict do nothing (그 사이 주문 트랜잭션이 넣었어도 중복 키로 재구성이 멈추지 않음)
+ */
+@Slf4j
+@Service
+public class OrderSummaryRebuildService {
+
+    private final EntityManager em;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public OrderSummaryRebuildService(EntityManager em,
+                                      OrderSummaryRepository orderSummaryRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${jpashop.order-summary.rebuild-batch-size:1000}") int batchSize) {
+        this.em = em;
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public long rebuild() {
+        long total = 0;
+        Long lastOrderId = 0L;
+        while (true) {
+            Long afterOrderId = lastOrderId;
+            // 배치 범위는 배치 트랜잭션 밖에서 정함 (배치 트랜잭션의 첫 SQL이 잠금이어야 원본을 최신 값으로 읽음)
+            Long toOrderId = findBatchEnd(afterOrderId);
+            if (toOrderId == null) {
+                break;
+            }
+            total += transactionTemplate.execute(status -> rebuildBatch(afterOrderId, toOrderId));
+            lastOrderId = toOrderId;
+        }
+
+        // 마지막 배치 이후 구간에서 원본이 없는 요약 row 정리
+        Long finalOrderId = lastOrderId;
+        transactionTemplate.executeWithoutResult(status -> orderSummaryRepository.deleteOrphans(finalOrderId, null));
+        log.info("order_summary rebuild rows : {}", total);
+        return total;
+    }
+
+    private Long findBatchEnd(Long afterOrderId) {
+        List<Long> orderIds = em.createQuery("select o.id from Order o where o.id > :afterOrderId order by o.id", Long.class)
+                .setParameter("afterOrderId", afterOrderId)
+                .setFirstResult(batchSize - 1)
+                .setMaxResults(1)
+                .getResultList();
+        if (!orderIds.isEmpty()) {
+            return orderIds.get(0);
+        }
+        return em.createQuery("select max(o.id) from Order o where o.id > :afterOrderId", Long.class) // 마지막 배치
+                .setParameter("afterOrderId", afterOrderId)
+                .getSingleResult();
+    }
+
+    private int rebuildBatch(Long afterOrderId, Long toOrderId) {
+        Map<Long, OrderSummary> existing = orderSummaryRepository.lockRange(afterOrderId, toOrderId).stream()
+                .collect(Collectors.toMap(OrderSummary::getOrderId, s -> s));
+        int inserted = orderSummaryRepository.insertMissing(afterOrderId, toOrderId);
+
+        List<OrderSimpleQueryDto> rows = em.createQuery(
+                        "select new jpabook.jpashop.api.dto.OrderSimpleQueryDto(o.id, m.name, o.orderDate, o.status, d.address)" +
+                                " from Order o" +
+                                " join o.member m" +
+                                " join o.delivery d" +
+                                " where o.id > :afterOrderId and o.id <= :toOrderId", OrderSimpleQueryDto.class)
+                .setParameter("afterOrderId", afterOrderId)
+                .setParameter("toOrderId", toOrderId)
+                .getResultList();
+        for (OrderSimpleQueryDto row : rows) {
+            OrderSummary orderSummary = existing.get(row.getOrderId());
+            if (orderSummary != null) { // 없던 row는 insertMissing 이 원본에서 바로 넣음
+                orderSummary.refresh(row.getName(), row.getOrderDate(), row.getOrderStatus(), row.getAddress());
+            }
+        }
+        orderSummaryRepository.deleteOrphans(afterOrderId, toOrderId);
+        em.flush();
+        em.clear();
+        log.debug("order_summary rebuild ({}, {}] : {} rows, {} inserted", afterOrderId, toOrderId, rows.size(), inserted);
+        return rows.size();
+    }
+}
@@ -0,0 +1,95 @@
+package jpabook.jpashop.dataset;
+
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.service.MemberService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    generate 는 JDBC 로 바로 커밋하므로 테스트 트랜잭션(@Transactional)으로 롤백되지 않음
+    -> 트랜잭션 없이 실행하고 적재한 id 범위를 직접 지움 (다른 테스트의 쿼리 수/건수에 섞이지 않도록)
+ */
+@SpringBootTest
+class DatasetGeneratorTest {
+
+    @Autowired DatasetGenerator datasetGenerator;
+    @Autowired MemberService memberService;
+    @Autowired JdbcTemplate jdbc;
+
+    @TempDir Path tempDir;
+
+    private DatasetResult loaded;
+
+    @AfterEach
+    public void cleanUp() {
+        if (loaded == null) {
+            return;
+        }
+        // FK 순서대로
+        jdbc.update("delete from order_summary where order_id >= ?", loaded.firstOrderId());
+        jdbc.update("delete from order_item where order_item_id >= ?", loaded.firstOrderItemId());
+        jdbc.update("delete from orders where order_id >= ?", loaded.firstOrderId());
+        jdbc.update("delete from delivery where delivery_id >= ?", loaded.firstOrderId());
+        jdbc.update("delete from item where item_id >= ?", loaded.firstItemId());
+        jdbc.update("delete from member where member_id >= ?", loaded.firstMemberId());
+    }
+
+    @Test
+    public void 같은_seed_같은_데이터() throws Exception {
+        //given : 기준일과 id 시작값을 고정하면 날짜, DB 상태와 상관없이 같은 파일
+        DatasetSpec spec = DatasetSpec.of(20, 10, 100, 7L)
+                .withAnchorDate(LocalDate.of(2024, 1, 1))
+                .withIdBase(1_000_000L);
+        //when
+        datasetGenerator.writeCsv(spec, tempDir.resolve("first"));
+        datasetGenerator.writeCsv(spec, tempDir.resolve("second"));
+        //then
+        for (String table : List.of("member", "item", "delivery", "orders", "order_item", "order_summary")) {
+            assertEquals(Files.readAllLines(tempDir.resolve("first").resolve(table + ".csv")),
+                    Files.readAllLines(tempDir.resolve("second").resolve(table + ".csv")), table + " 가 달라짐");
+        }
+        List<String> orders = Files.readAllLines(tempDir.resolve("first").resolve("orders.csv"));
+        assertEquals(101, orders.size(), "헤더 + 주문 100건");
+        assertTrue(orders.get(1).startsWith("1000000,"), "id 는 idBase 부터");
+    }
+
+    @Test
+    public void 대량_데이터_적재() throws Exception {
+        //given
+        DatasetSpec spec = new DatasetSpec(100, 50, 1000, 1, 3, 3, 1000, 50000, 100,
+                0.2, 0.8, 0.1, 0.5, 30, 1L);
+        //when
+        loaded = datasetGenerator.generate(spec);
+        DatasetResult result = loaded;
+        //then
+        assertEquals(1000L, count("select count(*) from orders where order_id >= ?", result.firstOrderId()));
+        assertEquals(1000L, count("select count(*) from order_summary where order_id >= ?", result.firstOrderId()));
+        assertEquals(result.orderItems(), count("select count(*) from order_item where order_item_id >= ?", result.firstOrderItemId()));
+
+        List<Long> linesPerItem = jdbc.queryForList(
+                "select count(*) from order_item where order_item_id >= ? group by item_id order by count(*) desc",
+                Long.class, result.firstOrderItemId());
+        long hotLines = linesPerItem.stream().limit(10).mapToLong(Long::longValue).sum();
+        assertTrue(hotLines > result.orderItems() * 0.7, "상품 20%(10개)가 주문상품의 대부분을 차지");
+
+        Member member = new Member();
+        member.setName("dataset회원");
+        Long memberId = memberService.join(member); // cleanUp 에서 같이 지워짐 (member_id >= firstMemberId)
+        assertTrue(memberId >= result.firstMemberId() + result.members(), "시퀀스가 적재된 id 뒤로 이동");
+    }
+
+    private long count(String sql, long fromId) {
+        return jdbc.queryForObject(sql, Long.class, fromId);
+    }
+}
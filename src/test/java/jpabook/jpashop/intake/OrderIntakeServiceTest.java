@@ -0,0 +1,44 @@
+package jpabook.jpashop.intake;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jpabook.jpashop.exception.OrderIntakeUnavailableException;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderIntakeServiceTest {
+
+    @Test
+    public void writer_중단시_접수_거절() throws Exception {
+        //given : 저장 중 Error 가 나는 writer
+        OrderService orderService = mock(OrderService.class);
+        when(orderService.orderAll(anyList())).thenThrow(new StackOverflowError("writer 테스트"));
+        when(orderService.order(any(), any(), anyInt())).thenThrow(new StackOverflowError("writer 테스트"));
+        OrderIntakeService intake = new OrderIntakeService(orderService, new SimpleMeterRegistry(),
+                true, 16, 1, 10, "reject", Duration.ofSeconds(1), Duration.ofMinutes(1));
+        intake.start();
+        try {
+            //when
+            OrderTicket ticket = intake.submit(1L, 1L, 1);
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (intake.liveWriters() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            //then
+            assertFalse(intake.isWriterAlive(), "writer 가 죽으면 상태로 드러나야 한다.");
+            assertEquals(0, intake.liveWriters());
+            assertEquals(OrderTicket.Status.FAILED, intake.findTicket(ticket.ticketId()).status(), "접수된 주문은 QUEUED 로 남지 않아야 한다.");
+            assertThrows(OrderIntakeUnavailableException.class, () -> intake.submit(1L, 1L, 1));
+        } finally {
+            intake.stop();
+        }
+    }
+}
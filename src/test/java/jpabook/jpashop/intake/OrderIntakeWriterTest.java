@@ -0,0 +1,128 @@
+package jpabook.jpashop.intake;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+    비동기 접수(enabled=true) -> writer 저장까지
+    writer 가 별도 트랜잭션으로 커밋하므로 @Transactional 없이 실행 (데이터는 테스트마다 새로 만듦)
+ */
+@SpringBootTest
+class OrderIntakeWriterTest {
+
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    public void 접수_후_저장_완료() throws Exception {
+        //given
+        Long memberId = createMember();
+        Long itemId = createBook(10);
+        OrderIntakeService intake = intake(orderService);
+        intake.start();
+        try {
+            //when
+            OrderTicket ticket = intake.submit(memberId, itemId, 3);
+            OrderTicket done = await(intake, ticket.ticketId());
+            //then
+            assertEquals(OrderTicket.Status.QUEUED, ticket.status(), "접수 즉시 QUEUED 티켓");
+            assertEquals(OrderTicket.Status.COMPLETED, done.status());
+            assertEquals(1L, jdbc.queryForObject("select count(*) from orders where order_id = ?", Long.class, done.orderId()));
+            assertEquals(7, itemService.findOne(itemId).getStockQuantity());
+        } finally {
+            intake.stop();
+        }
+    }
+
+    @Test
+    public void batch_실패시_한건씩_재저장() throws Exception {
+        //given : 첫 batch 저장을 붙잡아 두는 동안 나머지 3건이 한 batch 로 모이게 함
+        Long memberId = createMember();
+        Long itemId = createBook(10);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        OrderService gated = mock(OrderService.class);
+        when(gated.orderAll(anyList())).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                release.await();
+            }
+            return orderService.orderAll(invocation.getArgument(0));
+        });
+        when(gated.order(any(), any(), anyInt())).thenAnswer(invocation ->
+                orderService.order(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        OrderIntakeService intake = intake(gated);
+        intake.start();
+        try {
+            OrderTicket warmUp = intake.submit(memberId, itemId, 1);
+            while (first.get()) { // writer 가 첫 batch 를 꺼내서 붙잡힐 때까지
+                Thread.sleep(1);
+            }
+            //when : 재고 9개 남은 상태에서 4 + 20 + 4
+            OrderTicket a = intake.submit(memberId, itemId, 4);
+            OrderTicket tooMany = intake.submit(memberId, itemId, 20);
+            OrderTicket b = intake.submit(memberId, itemId, 4);
+            release.countDown();
+            //then
+            assertEquals(OrderTicket.Status.COMPLETED, await(intake, warmUp.ticketId()).status());
+            assertEquals(OrderTicket.Status.COMPLETED, await(intake, a.ticketId()).status());
+            assertEquals(OrderTicket.Status.FAILED, await(intake, tooMany.ticketId()).status(), "재고가 부족한 주문만 실패");
+            assertEquals(OrderTicket.Status.COMPLETED, await(intake, b.ticketId()).status());
+            assertEquals(0, itemService.findOne(itemId).getStockQuantity());
+        } finally {
+            intake.stop();
+        }
+    }
+
+    private OrderIntakeService intake(OrderService service) {
+        return new OrderIntakeService(service, new SimpleMeterRegistry(),
+                true, 16, 1, 10, "reject", Duration.ofSeconds(1), Duration.ofMinutes(1));
+    }
+
+    private static OrderTicket await(OrderIntakeService intake, String ticketId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        OrderTicket ticket = intake.findTicket(ticketId);
+        while (ticket.status() == OrderTicket.Status.QUEUED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            ticket = intake.findTicket(ticketId);
+        }
+        return ticket;
+    }
+
+    private Long createMember() {
+        Member member = new Member();
+        member.setName("접수회원" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        return memberService.join(member);
+    }
+
+    private Long createBook(int stock) {
+        Book book = new Book();
+        book.setName("접수 상품");
+        book.setPrice(10000);
+        book.setStockQuantity(stock);
+        itemService.saveItem(book);
+        return book.getId();
+    }
+}
@@ -0,0 +1,84 @@
+package jpabook.jpashop.intake;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRingBufferTest {
+
+    @Test
+    public void 가득차면_offer_실패() throws Exception {
+        //given
+        OrderRingBuffer<Integer> buffer = new OrderRingBuffer<>(4);
+        //when
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        //then
+        assertFalse(buffer.offer(4), "용량을 넘으면 넣을 수 없다.");
+        assertEquals(4, buffer.size());
+        assertEquals(0, buffer.poll(), "넣은 순서대로 꺼낸다.");
+        assertTrue(buffer.offer(4), "하나 꺼내면 다시 넣을 수 있다.");
+    }
+
+    @Test
+    public void 동시_생산_소비_유실_중복_없음() throws Exception {
+        //given
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 50_000;
+        OrderRingBuffer<Integer> buffer = new OrderRingBuffer<>(1024);
+        ConcurrentHashMap<Integer, Boolean> consumed = new ConcurrentHashMap<>();
+        AtomicInteger remaining = new AtomicInteger(producers * perProducer);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (remaining.get() > 0) {
+                    Integer value = buffer.poll();
+                    if (value == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    assertNull(consumed.put(value, Boolean.TRUE), "같은 원소를 두 번 꺼내면 안 된다.");
+                    remaining.decrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(producers * perProducer, consumed.size());
+        assertEquals(0, buffer.size());
+    }
+}
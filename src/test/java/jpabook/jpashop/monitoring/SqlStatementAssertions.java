@@ -0,0 +1,39 @@
+package jpabook.jpashop.monitoring;
+
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 쿼리 수가 늘어나면(N+1 재발) 테스트가 깨지도록 하는 assertion 모음
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static SqlStatementStats assertStatementCount(int expected, Executable executable) {
+        SqlStatementStats stats = recordChecked(executable);
+        assertEquals(expected, stats.getTotal(), () -> "실행된 SQL 수가 다릅니다. " + stats.getCountsByShape());
+        return stats;
+    }
+
+    public static SqlStatementStats assertNoRepeatedStatements(int threshold, Executable executable) {
+        SqlStatementStats stats = recordChecked(executable);
+        Map<String, Integer> repeated = stats.repeatedShapes(threshold);
+        assertTrue(repeated.isEmpty(), () -> "같은 SQL이 " + threshold + "번 넘게 반복되었습니다. " + repeated);
+        return stats;
+    }
+
+    private static SqlStatementStats recordChecked(Executable executable) {
+        return SqlStatementRecorder.record(() -> {
+            try {
+                executable.execute();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
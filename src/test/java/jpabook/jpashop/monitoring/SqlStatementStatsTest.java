@@ -0,0 +1,24 @@
+package jpabook.jpashop.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementStatsTest {
+
+    @Test
+    public void 바인딩값만_다른_SQL은_같은_모양() throws Exception {
+        //given
+        SqlStatementStats stats = new SqlStatementStats();
+        //when
+        stats.record("select m1_0.name from member m1_0 where m1_0.member_id=?");
+        stats.record("select  m1_0.name from member m1_0\n where m1_0.member_id=?");
+        stats.record("select oi1_0.order_id from order_item oi1_0 where oi1_0.order_id in (?,?,?)");
+        stats.record("select oi1_0.order_id from order_item oi1_0 where oi1_0.order_id in (?, ?)");
+        //then
+        assertEquals(4, stats.getTotal());
+        assertEquals(2, stats.getCountsByShape().size());
+        assertEquals(2, stats.repeatedShapes(1).size());
+        assertTrue(stats.repeatedShapes(2).isEmpty());
+    }
+}
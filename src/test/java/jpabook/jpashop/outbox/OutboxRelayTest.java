@@ -0,0 +1,83 @@
+package jpabook.jpashop.outbox;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderEventType;
+import jpabook.jpashop.domain.OutboxEvent;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"jpashop.outbox.relay.enabled=true", "jpashop.outbox.batch-size=10000"})
+@Transactional
+class OutboxRelayTest {
+
+    @Autowired EntityManager em;
+    @Autowired OrderService orderService;
+    @Autowired OutboxRelay outboxRelay;
+    @Autowired CapturingSink capturingSink;
+
+    @Test
+    public void 주문_취소_이벤트_순서대로_전달() throws Exception {
+        //given
+        Member member = new Member();
+        member.setName("outbox회원");
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        Long orderId = orderService.order(member.getId(), book.getId(), 2);
+        orderService.cancelOrder(orderId);
+        //when
+        outboxRelay.relayBatch();
+        //then
+        List<OutboxEvent> events = capturingSink.events.stream()
+                .filter(event -> event.getOrderId().equals(orderId))
+                .toList();
+        assertEquals(2, events.size());
+        assertEquals(OrderEventType.ORDER_PLACED, events.get(0).getEventType(), "같은 주문의 이벤트는 발생 순서대로 전달");
+        assertEquals(OrderEventType.ORDER_CANCELLED, events.get(1).getEventType());
+        assertEquals(1, events.get(0).getOrderSeq());
+        assertEquals(2, events.get(1).getOrderSeq(), "같은 주문 안의 이벤트 순번");
+
+        em.clear();
+        assertNotNull(em.find(OutboxEvent.class, events.get(0).getId()).getPublishedAt(), "전달한 이벤트는 published 로 표시");
+    }
+
+    static class CapturingSink implements OutboxSink {
+
+        final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void deliver(List<OutboxEvent> batch) {
+            events.addAll(batch);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        @Primary
+        CapturingSink capturingSink() {
+            return new CapturingSink();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package jpabook.jpashop.repository.member;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberNameBloomFilterTest {
+
+    @Test
+    public void 넣은_이름은_항상_포함() throws Exception {
+        //given
+        MemberNameBloomFilter filter = new MemberNameBloomFilter(true, 10_000, 0.01);
+        //when
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member" + i);
+        }
+        //then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("member" + i), "Bloom filter는 false negative가 없어야 한다.");
+        }
+    }
+
+    @Test
+    public void 오탐률() throws Exception {
+        //given
+        MemberNameBloomFilter filter = new MemberNameBloomFilter(true, 10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member" + i);
+        }
+        //when
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("guest" + i)) {
+                falsePositives++;
+            }
+        }
+        //then
+        assertTrue(falsePositives < 300, "오탐률은 설정값(1%) 근처여야 한다. falsePositives=" + falsePositives);
+    }
+}
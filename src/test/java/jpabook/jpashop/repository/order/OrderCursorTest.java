@@ -0,0 +1,27 @@
+package jpabook.jpashop.repository.order;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCursorTest {
+
+    @Test
+    public void 커서_인코딩_디코딩() throws Exception {
+        //given
+        LocalDateTime orderDate = LocalDateTime.of(2024, 6, 1, 12, 30, 15, 123456000);
+        OrderCursor cursor = new OrderCursor(orderDate, 5000L);
+        //when
+        OrderCursor decoded = OrderCursor.decode(cursor.encode());
+        //then
+        assertEquals(orderDate, decoded.getOrderDate());
+        assertEquals(5000L, decoded.getOrderId());
+    }
+
+    @Test
+    public void 잘못된_커서() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("not-a-cursor"));
+    }
+}
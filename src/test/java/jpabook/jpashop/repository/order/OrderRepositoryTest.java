@@ -0,0 +1,61 @@
+package jpabook.jpashop.repository.order;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OrderRepositoryTest {
+
+    @Autowired EntityManager em;
+    @Autowired OrderRepository orderRepository;
+
+    @Test
+    public void 동적검색_페이징() throws Exception {
+        //given
+        Member member = new Member();
+        member.setName("검색회원");
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        em.persist(book);
+
+        for (int i = 0; i < 5; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+            Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, 10000, 1));
+            if (i % 2 == 0) order.cancel();
+            em.persist(order);
+        }
+        em.flush();
+        em.clear();
+
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberId(member.getId());
+        orderSearch.setOrderStatus(OrderStatus.CANCEL);
+
+        //when
+        List<Order> first = orderRepository.findAll(orderSearch, 0, 2);
+        List<Order> second = orderRepository.findAll(orderSearch, 2, 2);
+        long count = orderRepository.count(orderSearch);
+
+        //then
+        assertEquals(3, count);
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertTrue(first.get(0).getId() > first.get(1).getId(), "최신 주문부터 조회");
+    }
+}
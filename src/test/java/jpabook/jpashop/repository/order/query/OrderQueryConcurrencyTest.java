@@ -0,0 +1,81 @@
+package jpabook.jpashop.repository.order.query;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    동시 실행 쿼리는 각자 별도 트랜잭션에서 돌기 때문에 테스트 트랜잭션(@Transactional) 안에서 넣은 데이터는 보이지 않음
+    -> 커밋된 데이터(InitDb)만으로 직렬/동시 실행 결과와 걸린 시간을 비교
+ */
+@Slf4j
+@SpringBootTest
+class OrderQueryConcurrencyTest {
+
+    private static final int WARMUP = 20;
+    private static final int ROUNDS = 100;
+
+    @Autowired OrderQueryRepository orderQueryRepository;
+
+    @Test
+    public void 직렬_동시실행_결과_동일() throws Exception {
+        //when
+        List<OrderQueryDto> serial = orderQueryRepository.findAllByDto();
+        List<OrderQueryDto> concurrent = orderQueryRepository.findAllByDto_concurrent();
+        //then
+        assertSameResult(serial, concurrent);
+    }
+
+    @Test
+    public void 직렬_동시실행_응답시간_비교() throws Exception {
+        List<List<OrderQueryDto>> serial = new ArrayList<>();
+        List<List<OrderQueryDto>> concurrent = new ArrayList<>();
+        long serialNanos = measure(orderQueryRepository::findAllByDto, serial);
+        long concurrentNanos = measure(orderQueryRepository::findAllByDto_concurrent, concurrent);
+
+        log.info("v5 serial avg : {} us, concurrent avg : {} us", serialNanos / 1000, concurrentNanos / 1000);
+        assertSameResult(serial.get(0), concurrent.get(0)); // 빠르더라도 결과가 같아야 비교 의미가 있음
+        assertSameResult(serial.get(0), concurrent.get(concurrent.size() - 1));
+    }
+
+    // 마지막 결과를 results 에 담음
+    private long measure(Supplier<List<OrderQueryDto>> query, List<List<OrderQueryDto>> results) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+        long start = System.nanoTime();
+        List<OrderQueryDto> last = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            last = query.get();
+        }
+        long elapsed = (System.nanoTime() - start) / ROUNDS;
+        results.add(last);
+        return elapsed;
+    }
+
+    private static void assertSameResult(List<OrderQueryDto> serial, List<OrderQueryDto> concurrent) {
+        assertEquals(serial.size(), concurrent.size());
+        serial.sort(Comparator.comparing(OrderQueryDto::getOrderId));
+        concurrent.sort(Comparator.comparing(OrderQueryDto::getOrderId));
+        for (int i = 0; i < serial.size(); i++) {
+            assertEquals(serial.get(i).getOrderId(), concurrent.get(i).getOrderId());
+            assertEquals(serial.get(i).getName(), concurrent.get(i).getName());
+            assertEquals(itemsOf(serial.get(i)), itemsOf(concurrent.get(i)), "주문 " + serial.get(i).getOrderId() + " 의 주문상품");
+        }
+    }
+
+    private static List<String> itemsOf(OrderQueryDto order) {
+        return order.getOrderItems().stream()
+                .map(item -> item.getItemName() + ":" + item.getOrderPrice() + ":" + item.getCount())
+                .sorted()
+                .toList();
+    }
+}
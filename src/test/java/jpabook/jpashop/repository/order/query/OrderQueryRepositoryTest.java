@@ -0,0 +1,90 @@
+package jpabook.jpashop.repository.order.query;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.monitoring.SqlStatementRecorder;
+import jpabook.jpashop.monitoring.SqlStatementStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static jpabook.jpashop.monitoring.SqlStatementAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OrderQueryRepositoryTest {
+
+    @Autowired EntityManager em;
+    @Autowired OrderQueryRepository orderQueryRepository;
+
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        Member member = new Member();
+        member.setName("회원1");
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+
+        for (int i = 0; i < 3; i++) {
+            Book book1 = createBook("JPA BOOK" + i);
+            Book book2 = createBook("SPRING BOOK" + i);
+
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+            Order order = Order.createOrder(member, delivery,
+                    OrderItem.createOrderItem(book1, 10000, 1),
+                    OrderItem.createOrderItem(book2, 20000, 2));
+            em.persist(order);
+            orders.add(order);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void 주문단위_페이징() throws Exception {
+        //given
+        Long beforeFirst = orders.get(0).getId() - 1;
+        //when
+        List<OrderQueryDto> firstPage = orderQueryRepository.findAllByDto_grouped(beforeFirst, 2);
+        List<OrderQueryDto> secondPage = orderQueryRepository.findAllByDto_grouped(firstPage.get(1).getOrderId(), 2);
+        //then
+        assertEquals(2, firstPage.size(), "row가 아니라 주문 단위로 잘려야 한다.");
+        assertEquals(orders.get(0).getId(), firstPage.get(0).getOrderId());
+        assertEquals(2, firstPage.get(0).getOrderItems().size(), "주문상품이 주문 하나로 접혀야 한다.");
+        assertEquals(orders.get(2).getId(), secondPage.get(0).getOrderId());
+        assertEquals(2, secondPage.get(0).getOrderItems().size());
+    }
+
+    @Test
+    public void 쿼리수_검증() throws Exception {
+        assertStatementCount(2, () -> orderQueryRepository.findAllByDto()); // 주문 1번 + 주문상품 IN 1번
+        assertStatementCount(1, () -> orderQueryRepository.findAllByDto_grouped(null, 100)); // 페이지 범위까지 flat 조인 1번
+        assertStatementCount(3, () -> orderQueryRepository.findAllByDto_concurrent()); // max(id) 1번 + 작업 쓰레드의 주문 1번, 주문상품 1번
+    }
+
+    @Test
+    public void N플러스1_감지() throws Exception {
+        //when
+        SqlStatementStats stats = SqlStatementRecorder.record(() -> orderQueryRepository.findOrderQueryDtos());
+        //then
+        assertFalse(stats.repeatedShapes(orders.size() - 1).isEmpty(), "주문 수만큼 주문상품 조회가 반복되어야 한다.");
+    }
+
+    private Book createBook(String name) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+        return book;
+    }
+}
@@ -0,0 +1,34 @@
+package jpabook.jpashop.repository.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InClauseChunksTest {
+
+    @Test
+    public void chunk_분할_및_패딩() throws Exception {
+        //given
+        List<Long> ids = LongStream.rangeClosed(1, 1205).boxed().toList();
+        //when
+        List<List<Long>> chunks = InClauseChunks.partition(ids, 500);
+        //then
+        assertEquals(3, chunks.size());
+        assertEquals(500, chunks.get(0).size());
+        assertEquals(500, chunks.get(1).size());
+        assertEquals(500, chunks.get(2).size(), "205개는 500 bucket으로 패딩되어야 한다.");
+        assertEquals(1205L, chunks.get(2).get(499), "패딩은 마지막 id를 반복한다.");
+    }
+
+    @Test
+    public void 작은_bucket() throws Exception {
+        assertEquals(8, InClauseChunks.bucketOf(3, 500));
+        assertEquals(32, InClauseChunks.bucketOf(9, 500));
+        assertEquals(128, InClauseChunks.bucketOf(100, 500));
+        assertEquals(500, InClauseChunks.bucketOf(129, 500));
+        assertEquals(20, InClauseChunks.bucketOf(9, 20), "chunkSize보다 큰 bucket은 쓰지 않는다.");
+    }
+}
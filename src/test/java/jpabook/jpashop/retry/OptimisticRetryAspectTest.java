@@ -0,0 +1,92 @@
+package jpabook.jpashop.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "jpashop.retry.backoff-millis=1")
+class OptimisticRetryAspectTest {
+
+    @Autowired ConflictingService conflictingService;
+    @Autowired MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void init() {
+        conflictingService.reset();
+    }
+
+    @Test
+    public void 충돌시_재시도() throws Exception {
+        //given
+        double before = count("jpashop.retry.retries");
+        //when
+        int calls = conflictingService.conflictTimes(2);
+        //then
+        assertEquals(3, calls, "충돌 2번 후 세 번째 시도에서 성공");
+        assertEquals(before + 2, count("jpashop.retry.retries"));
+    }
+
+    @Test
+    public void 최대횟수_초과시_예외() throws Exception {
+        //given
+        double before = count("jpashop.retry.exhausted");
+        //expected
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> conflictingService.conflictTimes(10));
+        assertEquals(3, conflictingService.calls(), "기본 최대 시도 횟수는 3");
+        assertEquals(before + 1, count("jpashop.retry.exhausted"));
+    }
+
+    @Test
+    @Transactional
+    public void 바깥_트랜잭션_안에서는_재시도_안함() throws Exception {
+        //expected
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> conflictingService.conflictTimes(1));
+        assertEquals(1, conflictingService.calls());
+    }
+
+    private double count(String name) {
+        var counter = meterRegistry.find(name).tag("method", "ConflictingService.conflictTimes").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    static class ConflictingService {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        public int calls() {
+            return calls.get();
+        }
+
+        public void reset() {
+            calls.set(0);
+        }
+
+        @RetryOnConflict
+        public int conflictTimes(int conflicts) {
+            int call = calls.incrementAndGet();
+            if (call <= conflicts) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, call);
+            }
+            return call;
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        ConflictingService conflictingService() {
+            return new ConflictingService();
+        }
+    }
+}
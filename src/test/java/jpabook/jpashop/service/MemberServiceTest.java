@@ -1,10 +1,12 @@
 package jpabook.jpashop.service;
 
+import jpabook.jpashop.api.dto.UpdateMemberRequest;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.repository.member.MemberRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -41,4 +43,43 @@ class MemberServiceTest {
         memberService.join(member1);
         assertThrows(IllegalStateException.class, () -> {memberService.join(member2);});
     }
+
+    @Test
+    public void 중복_회원_예외_유니크인덱스() throws Exception {
+        //given
+        Member member1 = new Member();
+        member1.setName("kim2");
+
+        Member member2 = new Member();
+        member2.setName("kim2");
+        //expected
+        memberService.signup(member1);
+        assertThrows(IllegalStateException.class, () -> {memberService.signup(member2);});
+    }
+
+    @Test
+    public void 이름_유니크인덱스_외의_위반은_변환하지_않음() throws Exception {
+        //given
+        Member member = new Member();
+        member.setName("k".repeat(300)); // name 컬럼 길이(255) 초과
+        //expected
+        assertThrows(DataIntegrityViolationException.class, () -> {memberService.signup(member);});
+    }
+
+    @Test
+    public void 이름변경_중복_회원_예외() throws Exception {
+        //given
+        Member member1 = new Member();
+        member1.setName("kim3");
+        Member member2 = new Member();
+        member2.setName("lee3");
+        memberService.signup(member1);
+        memberService.signup(member2);
+
+        UpdateMemberRequest request = new UpdateMemberRequest();
+        request.setName("kim3");
+        //expected
+        assertThrows(IllegalStateException.class, () -> {memberService.update(member2.getId(), request);});
+        assertEquals("lee3", memberRepository.findOne(member2.getId()).getName());
+    }
 }
@@ -0,0 +1,73 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.order.OrderSearch;
+import jpabook.jpashop.repository.order.OrderSummaryRepository;
+import jpabook.jpashop.service.OrderBulkCancelService.BulkCancelResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OrderBulkCancelServiceTest {
+
+    @Autowired EntityManager em;
+    @Autowired OrderService orderService;
+    @Autowired OrderBulkCancelService orderBulkCancelService;
+    @Autowired OrderSummaryRepository orderSummaryRepository;
+
+    @Test
+    public void 회원_주문_일괄취소() throws Exception {
+        //given
+        Member member = new Member();
+        member.setName("일괄취소회원");
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+
+        Book book1 = createBook("시골 JPA1", 10);
+        Book book2 = createBook("시골 JPA2", 10);
+
+        Long orderId1 = orderService.order(member.getId(), book1.getId(), 2);
+        Long orderId2 = orderService.order(member.getId(), book1.getId(), 3);
+        Long orderId3 = orderService.order(member.getId(), book2.getId(), 4);
+        Long delivered = orderService.order(member.getId(), book2.getId(), 1);
+        em.find(Order.class, delivered).getDelivery().setStatus(DeliveryStatus.COMP);
+        em.flush();
+        em.clear();
+
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberId(member.getId());
+        //when
+        BulkCancelResult result = orderBulkCancelService.cancelAll(orderSearch);
+        //then
+        assertEquals(3, result.cancelled());
+        assertEquals(1, result.skipped(), "배송 완료된 주문은 취소하지 않는다.");
+        assertEquals(OrderStatus.CANCEL, em.find(Order.class, orderId1).getStatus());
+        assertEquals(OrderStatus.CANCEL, orderSummaryRepository.findOne(orderId2).getStatus(), "요약 테이블 상태도 같이 바뀌어야 한다.");
+        assertEquals(OrderStatus.CANCEL, em.find(Order.class, orderId3).getStatus());
+        assertEquals(OrderStatus.ORDER, em.find(Order.class, delivered).getStatus());
+        assertEquals(10, em.find(Book.class, book1.getId()).getStockQuantity(), "상품별로 합산한 수량만큼 재고가 복구되어야 한다.");
+        assertEquals(9, em.find(Book.class, book2.getId()).getStockQuantity());
+    }
+
+    @Test
+    public void 조건없는_일괄취소_예외() throws Exception {
+        //expected
+        assertThrows(IllegalArgumentException.class, () -> orderBulkCancelService.cancelAll(new OrderSearch()));
+    }
+
+    private Book createBook(String name, int stockQuantity) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(10000);
+        book.setStockQuantity(stockQuantity);
+        em.persist(book);
+        return book;
+    }
+}
@@ -1,16 +1,23 @@
 package jpabook.jpashop.service;
 
 import jakarta.persistence.EntityManager;
+import jpabook.jpashop.api.dto.UpdateMemberRequest;
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.item.Book;
 import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.monitoring.SqlStatementRecorder;
 import jpabook.jpashop.repository.order.OrderRepository;
+import jpabook.jpashop.repository.order.OrderSearch;
+import jpabook.jpashop.repository.order.OrderSummaryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -19,7 +26,10 @@ class OrderServiceTest {
 
     @Autowired EntityManager em;
     @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
     @Autowired OrderRepository orderRepository;
+    @Autowired OrderSummaryRepository orderSummaryRepository;
+    @Autowired OrderSummaryRebuildService orderSummaryRebuildService;
 
     private Member member = new Member();
     private Book book = new Book();
@@ -75,4 +85,105 @@ class OrderServiceTest {
         assertEquals(OrderStatus.CANCEL, order.getStatus(), "주문 취소시 상태는 CANCEL 이다.");
         assertEquals(10, book.getStockQuantity(), "주문이 취소된 상품은 그만큼 재고가 증가해야 한다.");
     }
+
+    @Test
+    public void 주문요약_동기화() throws Exception {
+        //when
+        Long orderId = orderService.order(member.getId(), book.getId(), 2);
+        OrderStatus orderedStatus = orderSummaryRepository.findOne(orderId).getStatus();
+        orderService.cancelOrder(orderId);
+        //then
+        OrderSummary orderSummary = orderSummaryRepository.findOne(orderId);
+        assertEquals(OrderStatus.ORDER, orderedStatus, "주문시 요약 테이블도 같이 저장되어야 한다.");
+        assertEquals("회원1", orderSummary.getMemberName());
+        assertEquals(OrderStatus.CANCEL, orderSummary.getStatus(), "주문 취소시 요약 테이블 상태도 바뀌어야 한다.");
+    }
+
+    @Test
+    public void 주문요약_재구성() throws Exception {
+        //given : 상태가 어긋난 요약 row 와 빠진 요약 row
+        Long staleId = orderService.order(member.getId(), book.getId(), 1);
+        Long missingId = orderService.order(member.getId(), book.getId(), 1);
+        orderSummaryRepository.findOne(staleId).changeStatus(OrderStatus.CANCEL);
+        em.remove(orderSummaryRepository.findOne(missingId));
+        em.flush();
+        em.clear();
+        //when
+        orderSummaryRebuildService.rebuild();
+        //then
+        assertEquals(OrderStatus.ORDER, orderSummaryRepository.findOne(staleId).getStatus(), "원본 주문 상태로 덮어써야 한다.");
+        OrderSummary inserted = orderSummaryRepository.findOne(missingId);
+        assertNotNull(inserted, "요약 row가 없는 주문은 새로 넣어야 한다.");
+        assertEquals("회원1", inserted.getMemberName());
+        assertEquals("서울", inserted.getAddress().getCity());
+    }
+
+    @Test
+    public void 주문요약_회원이름_동기화() throws Exception {
+        //given
+        Long orderId = orderService.order(member.getId(), book.getId(), 2);
+        UpdateMemberRequest request = new UpdateMemberRequest();
+        request.setName("회원1-변경");
+        //when
+        memberService.update(member.getId(), request);
+        em.flush();
+        em.clear();
+        //then
+        assertEquals("회원1-변경", orderSummaryRepository.findOne(orderId).getMemberName(), "회원 이름 변경시 요약 테이블 이름도 바뀌어야 한다.");
+    }
+
+    @Test
+    public void 일괄주문() throws Exception {
+        //given
+        Book book2 = new Book();
+        book2.setName("시골 JPA2");
+        book2.setPrice(20000);
+        book2.setStockQuantity(5);
+        em.persist(book2);
+
+        OrderService.CartOrder cart = new OrderService.CartOrder(member.getId(), List.of(
+                new OrderService.OrderLine(book.getId(), 2),
+                new OrderService.OrderLine(book2.getId(), 1)));
+        OrderService.CartOrder single = new OrderService.CartOrder(member.getId(), List.of(
+                new OrderService.OrderLine(book.getId(), 3)));
+        em.flush();
+        //when
+        SqlStatementRecorder.Recorded<List<Long>> recorded = SqlStatementRecorder.recordResult(() -> {
+            List<Long> ids = orderService.orderAll(List.of(cart, single));
+            em.flush();
+            return ids;
+        });
+        List<Long> orderIds = recorded.result();
+        //then
+        long itemSelects = recorded.stats().getCountsByShape().entrySet().stream()
+                .filter(shape -> shape.getKey().startsWith("select") && shape.getKey().contains(" from item "))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        assertEquals(1, itemSelects, "상품은 잠금 조회 한 번으로 가져와야 한다.");
+        assertEquals(2, orderIds.size());
+        assertEquals(2, orderRepository.findOne(orderIds.get(0)).getOrderItems().size(), "장바구니 주문은 주문상품이 여러 건이다.");
+        assertEquals(40000, orderRepository.findOne(orderIds.get(0)).getTotalPrice());
+        assertEquals(5, book.getStockQuantity(), "같은 상품을 여러 주문이 사면 수량이 합산되어 줄어야 한다.");
+        assertEquals(4, book2.getStockQuantity());
+    }
+
+    @Test
+    public void 일괄주문_재고수량초과() throws Exception {
+        //given : 주문 하나하나는 재고 이내지만 합치면 초과
+        OrderService.CartOrder first = new OrderService.CartOrder(member.getId(), List.of(new OrderService.OrderLine(book.getId(), 6)));
+        OrderService.CartOrder second = new OrderService.CartOrder(member.getId(), List.of(new OrderService.OrderLine(book.getId(), 6)));
+        //expected
+        assertThrows(NotEnoughStockException.class, () -> orderService.orderAll(List.of(first, second)));
+        assertEquals(10, book.getStockQuantity(), "재고가 부족하면 아무 주문도 처리되지 않아야 한다.");
+    }
+
+    @Test
+    public void 주문목록_큰페이지번호() throws Exception {
+        //given
+        orderService.order(member.getId(), book.getId(), 1);
+        //when : page * size 가 int 범위를 넘는 페이지
+        List<Order> orders = orderService.findOrders(new OrderSearch(), Integer.MAX_VALUE, 100);
+        //then
+        assertTrue(orders.isEmpty(), "offset 이 음수로 넘어가지 않고 빈 페이지여야 한다.");
+    }
 }
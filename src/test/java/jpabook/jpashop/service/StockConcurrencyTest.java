@@ -0,0 +1,116 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    하나의 인기 상품에 여러 쓰레드가 동시에 주문
+    각 주문이 별도 트랜잭션으로 커밋되어야 하므로 @Transactional 없이 실행 (데이터는 테스트마다 새로 만듦)
+ */
+@Slf4j
+@SpringBootTest
+class StockConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int STOCK = 100;
+    private static final int ATTEMPTS = 300;
+
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void 동시주문_재고유실_없음() throws Exception {
+        //given
+        Member member = new Member();
+        member.setName("동시주문회원" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        Long memberId = memberService.join(member);
+
+        Book book = new Book();
+        book.setName("인기 상품");
+        book.setPrice(10000);
+        book.setStockQuantity(STOCK);
+        itemService.saveItem(book);
+        Long itemId = book.getId();
+
+        //when
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.order(memberId, itemId, 1);
+                    success.incrementAndGet();
+                } catch (NotEnoughStockException e) {
+                    soldOut.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(); // 그 외 예외(교착 상태 등)가 있으면 테스트 실패
+        }
+        executor.shutdown();
+
+        //then
+        log.info("success : {}, sold out : {}", success.get(), soldOut.get());
+        assertEquals(STOCK, success.get(), "재고만큼만 주문이 성공해야 한다.");
+        assertEquals(ATTEMPTS - STOCK, soldOut.get());
+        assertEquals(0, itemService.findOne(itemId).getStockQuantity(), "성공한 주문 수만큼 정확히 재고가 줄어야 한다.");
+    }
+
+    @Test
+    public void 주문해도_다른_상품_2차캐시_유지() throws Exception {
+        //given
+        Member member = new Member();
+        member.setName("캐시회원" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        Long memberId = memberService.join(member);
+
+        Book ordered = new Book();
+        ordered.setName("주문 상품");
+        ordered.setPrice(10000);
+        ordered.setStockQuantity(10);
+        itemService.saveItem(ordered);
+
+        Book other = new Book();
+        other.setName("다른 상품");
+        other.setPrice(10000);
+        other.setStockQuantity(10);
+        itemService.saveItem(other);
+        itemService.findOne(other.getId()); // 2차 캐시에 올림
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, other.getId()));
+
+        //when
+        orderService.order(memberId, ordered.getId(), 1);
+
+        //then
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, other.getId()), "재고 차감이 Item 캐시 영역 전체를 비우면 안 된다.");
+        assertEquals(9, itemService.findOne(ordered.getId()).getStockQuantity());
+    }
+}